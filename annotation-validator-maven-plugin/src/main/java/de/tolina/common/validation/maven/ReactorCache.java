@@ -0,0 +1,166 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation.maven;
+
+import de.tolina.common.validation.AnnotationValidation;
+import de.tolina.common.validation.ParallelValidation;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+
+/**
+ * State shared by all modules of one reactor build, it lives in the plugin's class realm
+ * <br> - class loaders for dependency class paths, so modules with the same dependencies share their Classes
+ * <br> - the rules, each created once and shared by all modules with their verdicts and the measured validation
+ * times, so modules are scheduled by the times of the modules validated before
+ * <br> - the type hierarchy is resolved per module, so Classes of validated modules are released with them
+ * <br>
+ * <br> The state is kept per build session without keeping the session, e.g. in a daemon running several builds.
+ * The class loaders are closed when the session ends, so the jars of the dependencies are not kept open.
+ */
+final class ReactorCache {
+
+    // keyed by the request, which is shared by the clones of a session in parallel builds
+    private static final Map<MavenExecutionRequest, ReactorCache> SESSIONS = new WeakHashMap<>();
+
+    private final Map<List<String>, URLClassLoader> dependencyClassLoaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, AnnotationValidation> rules = new ConcurrentHashMap<>();
+
+
+    private ReactorCache() {
+        // created per build session only
+    }
+
+
+    /**
+     * @param session the session of the running build, shared by all its modules
+     * @return the state of the given build
+     */
+    @Nonnull
+    static ReactorCache of(
+            @Nonnull final MavenSession session) {
+        synchronized (SESSIONS) {
+            return SESSIONS.computeIfAbsent(session.getRequest(), request -> {
+                final ReactorCache reactorCache = new ReactorCache();
+                request.setExecutionListener(new SessionEndListener(request.getExecutionListener(), reactorCache));
+                return reactorCache;
+            });
+        }
+    }
+
+
+    /**
+     * @param classPathElements the dependencies of a module, without its own output directory
+     * @param parent the plugin's class loader, so annotation types of rules and dependencies are the same
+     * @return a class loader shared by all modules with the same dependencies, closed when the session ends, since
+     * modules of parallel builds may still use it
+     */
+    @Nonnull
+    ClassLoader dependencyClassLoader(
+            @Nonnull final List<String> classPathElements,
+            @Nonnull final ClassLoader parent) {
+        return dependencyClassLoaders.computeIfAbsent(classPathElements, elements -> {
+            final List<URL> urls = new ArrayList<>();
+            for (final String element : elements) {
+                try {
+                    urls.add(new File(element).toURI().toURL());
+                } catch (final MalformedURLException e) {
+                    throw new IllegalArgumentException(element, e);
+                }
+            }
+            return new URLClassLoader(urls.toArray(new URL[]{}), parent);
+        });
+    }
+
+
+    /**
+     * Creates the rules only once per build, unless they are part of the validated module itself
+     * <br> The returned validation resolves the type hierarchy of this module only, it is not shared.
+     *
+     * @param rulesClass Supplier of the rules with a public no-arg constructor
+     * @param moduleClassLoader the class loader of the validated module
+     * @param threads number of threads, less than 1 for the number of available processors
+     * @param deep whether members are validated as well
+     * @return the validation of the rules for the module
+     * @throws ReflectiveOperationException if the rules could not be created
+     */
+    @Nonnull
+    ParallelValidation validation(
+            @Nonnull final Class<? extends Supplier<AnnotationValidation>> rulesClass,
+            @Nonnull final ClassLoader moduleClassLoader,
+            final int threads,
+            final boolean deep) throws ReflectiveOperationException {
+        final ParallelValidation validation = getRules(rulesClass, moduleClassLoader).inParallel();
+        if (threads > 0) {
+            validation.threads(threads);
+        }
+        return deep ? validation.deep() : validation;
+    }
+
+
+    /**
+     * Closes the class loaders of the dependencies, called when the session ends
+     */
+    void close() {
+        for (final URLClassLoader classLoader : dependencyClassLoaders.values()) {
+            try {
+                classLoader.close();
+            } catch (final IOException e) {
+                // the remaining class loaders are closed anyway, the loader itself is released with this state
+            }
+        }
+        dependencyClassLoaders.clear();
+    }
+
+
+    @Nonnull
+    private AnnotationValidation getRules(
+            @Nonnull final Class<? extends Supplier<AnnotationValidation>> rulesClass,
+            @Nonnull final ClassLoader moduleClassLoader) throws ReflectiveOperationException {
+        if (rulesClass.getClassLoader() == moduleClassLoader) {
+            return createRules(rulesClass);
+        }
+
+        final AnnotationValidation validation = rules.get(rulesClass);
+        if (validation != null) {
+            return validation;
+        }
+        final AnnotationValidation created = createRules(rulesClass);
+        final AnnotationValidation existing = rules.putIfAbsent(rulesClass, created);
+        return existing == null ? created : existing;
+    }
+
+
+    @Nonnull
+    private static AnnotationValidation createRules(
+            @Nonnull final Class<? extends Supplier<AnnotationValidation>> rulesClass)
+            throws ReflectiveOperationException {
+        return rulesClass.getDeclaredConstructor().newInstance().get();
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation.maven;
+
+import org.apache.maven.execution.AbstractExecutionListener;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Closes the {@link ReactorCache} of a build when its session ends
+ * <br> - all events are passed on to the listener it replaces, e.g. the console output of the build
+ * <br> - Maven looks up the listener of the request for each event, so it may be installed by a running mojo
+ */
+final class SessionEndListener extends AbstractExecutionListener {
+
+    @Nullable
+    private final ExecutionListener delegate;
+    @Nonnull
+    private final ReactorCache reactorCache;
+
+
+    SessionEndListener(
+            @Nullable final ExecutionListener delegate,
+            @Nonnull final ReactorCache reactorCache) {
+        this.delegate = delegate;
+        this.reactorCache = reactorCache;
+    }
+
+
+    @Override
+    public void sessionEnded(final ExecutionEvent event) {
+        try {
+            if (delegate != null) {
+                delegate.sessionEnded(event);
+            }
+        } finally {
+            reactorCache.close();
+        }
+    }
+
+
+    @Override
+    public void projectDiscoveryStarted(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectDiscoveryStarted(event);
+        }
+    }
+
+
+    @Override
+    public void sessionStarted(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.sessionStarted(event);
+        }
+    }
+
+
+    @Override
+    public void projectSkipped(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectSkipped(event);
+        }
+    }
+
+
+    @Override
+    public void projectStarted(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectStarted(event);
+        }
+    }
+
+
+    @Override
+    public void projectSucceeded(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectSucceeded(event);
+        }
+    }
+
+
+    @Override
+    public void projectFailed(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectFailed(event);
+        }
+    }
+
+
+    @Override
+    public void mojoSkipped(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.mojoSkipped(event);
+        }
+    }
+
+
+    @Override
+    public void mojoStarted(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.mojoStarted(event);
+        }
+    }
+
+
+    @Override
+    public void mojoSucceeded(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.mojoSucceeded(event);
+        }
+    }
+
+
+    @Override
+    public void mojoFailed(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.mojoFailed(event);
+        }
+    }
+
+
+    @Override
+    public void forkStarted(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkStarted(event);
+        }
+    }
+
+
+    @Override
+    public void forkSucceeded(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkSucceeded(event);
+        }
+    }
+
+
+    @Override
+    public void forkFailed(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkFailed(event);
+        }
+    }
+
+
+    @Override
+    public void forkedProjectStarted(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkedProjectStarted(event);
+        }
+    }
+
+
+    @Override
+    public void forkedProjectSucceeded(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkedProjectSucceeded(event);
+        }
+    }
+
+
+    @Override
+    public void forkedProjectFailed(final ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkedProjectFailed(event);
+        }
+    }
+}
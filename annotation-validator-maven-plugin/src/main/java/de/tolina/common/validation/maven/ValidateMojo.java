@@ -0,0 +1,152 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation.maven;
+
+import de.tolina.common.validation.AnnotationValidation;
+import de.tolina.common.validation.ValidationReport;
+import de.tolina.common.validation.ValidationResult;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+
+/**
+ * Validates the compiled Classes of a module with the given rules
+ * <br> Rules are Suppliers of {@link AnnotationValidation} with a public no-arg constructor. Rules found in the
+ * plugin's dependencies are created once per build and share their verdicts across all modules.
+ */
+@Mojo(name = "validate", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true,
+        requiresDependencyResolution = ResolutionScope.COMPILE)
+public class ValidateMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    private MavenSession session;
+
+    /**
+     * Class names of the rules, Suppliers of AnnotationValidation
+     */
+    @Parameter(required = true)
+    private List<String> rules;
+
+    /**
+     * Directory of the Classes to be validated
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File classesDirectory;
+
+    /**
+     * Number of threads validating in parallel, less than 1 for the number of available processors
+     */
+    @Parameter(property = "annotation-validator.threads", defaultValue = "0")
+    private int threads;
+
+    /**
+     * Validates all declared members of the Classes as well
+     */
+    @Parameter(property = "annotation-validator.deep", defaultValue = "false")
+    private boolean deep;
+
+    @Parameter(property = "annotation-validator.skip", defaultValue = "false")
+    private boolean skip;
+
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Annotation validation is skipped.");
+            return;
+        }
+        if (!classesDirectory.isDirectory()) {
+            getLog().info(format("No classes to validate in %s.", classesDirectory));
+            return;
+        }
+
+        final ReactorCache reactorCache = ReactorCache.of(session);
+        final ClassLoader dependencies =
+                reactorCache.dependencyClassLoader(getDependencies(), getClass().getClassLoader());
+
+        final List<String> errors = new ArrayList<>();
+        try (final URLClassLoader moduleClassLoader =
+                     new URLClassLoader(new URL[]{classesDirectory.toURI().toURL()}, dependencies)) {
+            for (final String rulesClassName : rules) {
+                final ValidationReport report = reactorCache
+                        .validation(loadRules(rulesClassName, moduleClassLoader), moduleClassLoader, threads, deep)
+                        .run(moduleClassLoader, classesDirectory.toPath());
+                getLog().info(format("%s: %s", rulesClassName, report));
+
+                for (final ValidationResult failure : report.getFailures()) {
+                    for (final String error : failure.getErrors()) {
+                        errors.add(format("%s: %s", failure.getElement(), error));
+                    }
+                }
+            }
+        } catch (final IOException | ReflectiveOperationException e) {
+            throw new MojoExecutionException("Could not validate " + classesDirectory, e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while validating " + classesDirectory, e);
+        }
+
+        if (!errors.isEmpty()) {
+            errors.forEach(getLog()::error);
+            throw new MojoFailureException(format("Annotation validation failed with %d errors.", errors.size()));
+        }
+    }
+
+
+    private List<String> getDependencies() throws MojoExecutionException {
+        try {
+            final List<String> dependencies = new ArrayList<>(project.getCompileClasspathElements());
+            dependencies.remove(project.getBuild().getOutputDirectory());
+            dependencies.remove(classesDirectory.getPath());
+            return dependencies;
+        } catch (final DependencyResolutionRequiredException e) {
+            throw new MojoExecutionException("Dependencies are not resolved", e);
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Supplier<AnnotationValidation>> loadRules(
+            final String rulesClassName,
+            final ClassLoader moduleClassLoader) throws ClassNotFoundException {
+        final Class<?> rulesClass = Class.forName(rulesClassName, true, moduleClassLoader);
+        if (!Supplier.class.isAssignableFrom(rulesClass)) {
+            throw new IllegalArgumentException(format("%s is no Supplier of AnnotationValidation.", rulesClassName));
+        }
+        return (Class<? extends Supplier<AnnotationValidation>>) rulesClass;
+    }
+}
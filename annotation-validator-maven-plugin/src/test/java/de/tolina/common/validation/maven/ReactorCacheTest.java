@@ -0,0 +1,158 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation.maven;
+
+import de.tolina.common.validation.ValidationReport;
+import org.apache.maven.execution.AbstractExecutionListener;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.MavenSession;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the {@link ReactorCache}
+ */
+public class ReactorCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    @Test
+    public void testOf_perSession() throws Exception {
+        final MavenSession session = newSession();
+        final ReactorCache reactorCache = ReactorCache.of(session);
+
+        assertThat(ReactorCache.of(session), is(sameInstance(reactorCache)));
+        // parallel builds run each module with a clone of the session
+        assertThat(ReactorCache.of(session.clone()), is(sameInstance(reactorCache)));
+        assertThat(ReactorCache.of(newSession()), is(not(sameInstance(reactorCache))));
+    }
+
+
+    @Test
+    public void testOf_releasedWithSession() throws Exception {
+        MavenSession session = newSession();
+        final WeakReference<ReactorCache> released = new WeakReference<>(ReactorCache.of(session));
+
+        session = null;
+        for (int i = 0; i < 20 && released.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+            // the state of collected sessions is dropped by the next build
+            ReactorCache.of(newSession());
+        }
+
+        assertNull("state still referenced after the session", released.get());
+    }
+
+
+    @Test
+    public void testOf_closesDependencyClassLoadersWithSession() throws Exception {
+        final MavenSession session = newSession();
+        final List<String> endedSessions = new ArrayList<>();
+        session.getRequest().setExecutionListener(new AbstractExecutionListener() {
+            @Override
+            public void sessionEnded(final ExecutionEvent event) {
+                endedSessions.add("ended");
+            }
+        });
+        final Path dependencies = temporaryFolder.newFolder().toPath();
+        Files.createFile(dependencies.resolve("marker.txt"));
+
+        final ClassLoader dependencyClassLoader = ReactorCache.of(session)
+                .dependencyClassLoader(singletonList(dependencies.toString()), getClass().getClassLoader());
+        assertThat(dependencyClassLoader.getResource("marker.txt"), is(notNullValue()));
+
+        session.getRequest().getExecutionListener().sessionEnded(null);
+
+        // the build's own listener is still notified
+        assertThat(endedSessions, contains("ended"));
+        assertThat(dependencyClassLoader.getResource("marker.txt"), is(nullValue()));
+    }
+
+
+    @Test
+    public void testValidation_releasesModuleClasses() throws Exception {
+        final MavenSession session = newSession();
+        final Path classes = temporaryFolder.newFolder().toPath();
+        final Path dependencies = temporaryFolder.newFolder().toPath();
+        copyClassFile(classes, AnnotatedTestClass.class);
+        copyClassFile(dependencies, TestAnnotation.class);
+
+        // neither the module nor its dependencies are visible to the rules, the Annotations only match by name
+        URLClassLoader dependencyClassLoader = new URLClassLoader(new URL[]{dependencies.toUri().toURL()}, null);
+        URLClassLoader moduleClassLoader =
+                new URLClassLoader(new URL[]{classes.toUri().toURL()}, dependencyClassLoader);
+        final WeakReference<ClassLoader> released = new WeakReference<>(moduleClassLoader);
+        final ValidationReport report = ReactorCache.of(session)
+                .validation(TestAnnotationRules.class, moduleClassLoader, 1, false)
+                .run(moduleClassLoader, classes);
+        assertTrue(report.getFailures().toString(), report.isValid());
+
+        moduleClassLoader.close();
+        dependencyClassLoader.close();
+        moduleClassLoader = null;
+        dependencyClassLoader = null;
+        for (int i = 0; i < 20 && released.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertNull("module class loader still referenced by the rules of the session", released.get());
+        assertThat(ReactorCache.of(session), is(sameInstance(ReactorCache.of(session.clone()))));
+    }
+
+
+    private void copyClassFile(final Path classes, final Class<?> testClass) throws IOException {
+        final String resourceName = testClass.getName().replace('.', '/') + ".class";
+        final Path classFile = classes.resolve(resourceName);
+        Files.createDirectories(classFile.getParent());
+        try (final InputStream in = testClass.getClassLoader().getResourceAsStream(resourceName)) {
+            Files.copy(in, classFile);
+        }
+    }
+
+
+    @SuppressWarnings("deprecation")
+    private static MavenSession newSession() {
+        return new MavenSession(null, null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult());
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation.maven;
+
+import de.tolina.common.validation.AnnotationValidation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static de.tolina.common.validation.AnnotationDefinition.type;
+import static de.tolina.common.validation.AnnotationValidator.validate;
+
+@SuppressWarnings("javadoc")
+public class TestAnnotationRules implements Supplier<AnnotationValidation> {
+
+    static final AtomicInteger CREATED = new AtomicInteger();
+
+
+    @Override
+    public AnnotationValidation get() {
+        CREATED.incrementAndGet();
+        return validate().annotation(type(TestAnnotation.class));
+    }
+}
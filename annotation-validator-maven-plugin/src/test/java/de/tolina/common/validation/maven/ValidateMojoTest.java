@@ -0,0 +1,120 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation.maven;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.testing.MojoRule;
+import org.apache.maven.project.MavenProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for the {@link ValidateMojo} configured by the plugin descriptor
+ */
+public class ValidateMojoTest {
+
+    @Rule
+    public MojoRule mojoRule = new MojoRule();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+
+    @Test
+    public void testExecute() throws Exception {
+        final File classes = temporaryFolder.newFolder();
+        copyClassFile(classes.toPath(), AnnotatedTestClass.class);
+
+        lookupMojo(classes).execute();
+    }
+
+
+    @Test
+    public void testExecute_invalid() throws Exception {
+        final File classes = temporaryFolder.newFolder();
+        copyClassFile(classes.toPath(), AnnotatedTestClass.class);
+        copyClassFile(classes.toPath(), NotAnnotatedTestClass.class);
+
+        thrown.expect(MojoFailureException.class);
+        thrown.expectMessage("Annotation validation failed with 1 errors.");
+        lookupMojo(classes).execute();
+    }
+
+
+    @Test
+    public void testExecute_rulesCreatedOncePerSession() throws Exception {
+        final File classes = temporaryFolder.newFolder();
+        copyClassFile(classes.toPath(), AnnotatedTestClass.class);
+        final MavenSession session = mojoRule.newMavenSession(new MavenProject());
+        final int created = TestAnnotationRules.CREATED.get();
+
+        lookupMojo(classes, session).execute();
+        lookupMojo(classes, session).execute();
+        assertThat(TestAnnotationRules.CREATED.get(), is(created + 1));
+
+        lookupMojo(classes).execute();
+        assertThat(TestAnnotationRules.CREATED.get(), is(created + 2));
+    }
+
+
+    @Test
+    public void testExecute_noClasses() throws Exception {
+        lookupMojo(new File(temporaryFolder.getRoot(), "missing")).execute();
+    }
+
+
+    private ValidateMojo lookupMojo(final File classes) throws Exception {
+        return lookupMojo(classes, mojoRule.newMavenSession(new MavenProject()));
+    }
+
+
+    private ValidateMojo lookupMojo(final File classes, final MavenSession session) throws Exception {
+        final MavenProject project = new MavenProject();
+        project.getBuild().setOutputDirectory(classes.getPath());
+
+        final ValidateMojo mojo =
+                (ValidateMojo) mojoRule.lookupMojo("validate", new File("src/test/resources/unit/pom.xml"));
+        mojoRule.setVariableValueToObject(mojo, "project", project);
+        mojoRule.setVariableValueToObject(mojo, "session", session);
+        mojoRule.setVariableValueToObject(mojo, "classesDirectory", classes);
+        return mojo;
+    }
+
+
+    private void copyClassFile(final Path classes, final Class<?> testClass) throws IOException {
+        final String resourceName = testClass.getName().replace('.', '/') + ".class";
+        final Path classFile = classes.resolve(resourceName);
+        Files.createDirectories(classFile.getParent());
+        try (final InputStream in = testClass.getClassLoader().getResourceAsStream(resourceName)) {
+            Files.copy(in, classFile);
+        }
+    }
+}
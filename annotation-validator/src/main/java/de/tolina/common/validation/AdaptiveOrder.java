@@ -0,0 +1,147 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+
+/**
+ * Runs rules that all have to pass in the order that rejects failing elements fastest
+ * <br> - records per rule how often it runs and fails, and the time it takes for a sample of its runs
+ * <br> - reorders the rules from time to time by expected cost per rejection, cheap and selective rules first
+ * <br> - only the order changes, so whether all rules pass does not depend on it
+ */
+final class AdaptiveOrder<T> {
+
+    private static final int TIMING_INTERVAL = 16;
+    private static final int REORDER_INTERVAL = 256;
+
+    private final List<T> rules;
+    private final LongAdder[] evaluations;
+    private final LongAdder[] failures;
+    private final LongAdder[] timedEvaluations;
+    private final LongAdder[] nanos;
+    private volatile int[] order;
+
+
+    AdaptiveOrder(
+            @Nonnull final List<T> rules) {
+        this.rules = new ArrayList<>(rules);
+        evaluations = newAdders(rules.size());
+        failures = newAdders(rules.size());
+        timedEvaluations = newAdders(rules.size());
+        nanos = newAdders(rules.size());
+
+        final int[] declaredOrder = new int[rules.size()];
+        for (int i = 0; i < declaredOrder.length; i++) {
+            declaredOrder[i] = i;
+        }
+        order = declaredOrder;
+    }
+
+
+    /**
+     * Runs the rules in the current order until one fails
+     *
+     * @param rule tests a single rule, true if it passes
+     * @return true if all rules pass
+     */
+    boolean allPass(
+            @Nonnull final Predicate<T> rule) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        // timing every run would cost about as much as a cheap rule itself
+        final boolean timed = random.nextInt(TIMING_INTERVAL) == 0;
+        if (random.nextInt(REORDER_INTERVAL) == 0) {
+            reorder();
+        }
+
+        for (final int index : order) {
+            final long start = timed ? System.nanoTime() : 0L;
+            final boolean passed = rule.test(rules.get(index));
+            if (timed) {
+                nanos[index].add(System.nanoTime() - start);
+                timedEvaluations[index].increment();
+            }
+            evaluations[index].increment();
+            if (!passed) {
+                failures[index].increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Sorts the rules by their mean cost divided by their failure rate, rules without statistics keep their
+     * declared order
+     */
+    void reorder() {
+        final double[] meanNanos = new double[rules.size()];
+        double timedMeanNanos = 0;
+        int timedRules = 0;
+        for (int i = 0; i < meanNanos.length; i++) {
+            final long timed = timedEvaluations[i].sum();
+            if (timed > 0) {
+                meanNanos[i] = Math.max(1, (double) nanos[i].sum() / timed);
+                timedMeanNanos += meanNanos[i];
+                timedRules++;
+            }
+        }
+        // rules without timed runs are assumed to cost as much as the others on average
+        final double defaultNanos = timedRules == 0 ? 1 : timedMeanNanos / timedRules;
+
+        final double[] ranks = new double[rules.size()];
+        final List<Integer> indices = new ArrayList<>(rules.size());
+        for (int i = 0; i < ranks.length; i++) {
+            // smoothed, so a rule that has not failed yet still gets a finite rank
+            final double failureRate = (failures[i].sum() + 1.0) / (evaluations[i].sum() + 2.0);
+            ranks[i] = (meanNanos[i] > 0 ? meanNanos[i] : defaultNanos) / failureRate;
+            indices.add(i);
+        }
+        // the sort is stable, so equal ranks keep the declared order
+        indices.sort(Comparator.comparingDouble(index -> ranks[index]));
+        order = indices.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+
+    /**
+     * @return the rules in the order in which they currently run
+     */
+    @Nonnull
+    List<T> getOrder() {
+        final List<T> orderedRules = new ArrayList<>(rules.size());
+        for (final int index : order) {
+            orderedRules.add(rules.get(index));
+        }
+        return orderedRules;
+    }
+
+
+    @Nonnull
+    private static LongAdder[] newAdders(
+            final int count) {
+        final LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
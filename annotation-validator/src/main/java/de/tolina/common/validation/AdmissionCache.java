@@ -0,0 +1,119 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+
+/**
+ * Remembers the verdicts of {@link AnnotationValidation#check(Class)} for one rule set
+ * <br> - verdicts are held per class loader in a {@link WeakHashMap}, so they never keep a Class or its class
+ * loader from being unloaded
+ * <br> - within a class loader a Class is identified by its name
+ * <br> - once the size bound is reached, the least recently used verdicts of the class loader with the most
+ * verdicts are evicted
+ */
+final class AdmissionCache {
+
+    private final Map<ClassLoader, LinkedHashMap<String, Boolean>> verdictsByClassLoader = new WeakHashMap<>();
+    private final int maximumSize;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+
+    AdmissionCache(
+            final int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+
+    /**
+     * @return the remembered verdict, null if the given Class was not checked yet
+     */
+    @Nullable
+    synchronized Boolean get(
+            @Nonnull final Class<?> checkedClass) {
+        final LinkedHashMap<String, Boolean> verdicts = verdictsByClassLoader.get(checkedClass.getClassLoader());
+        final Boolean verdict = verdicts == null ? null : verdicts.get(checkedClass.getName());
+        if (verdict == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return verdict;
+    }
+
+
+    synchronized void put(
+            @Nonnull final Class<?> checkedClass,
+            final boolean verdict) {
+        if (maximumSize <= 0) {
+            return;
+        }
+
+        final LinkedHashMap<String, Boolean> verdicts = verdictsByClassLoader.computeIfAbsent(
+                checkedClass.getClassLoader(), classLoader -> new LinkedHashMap<>(16, 0.75f, true));
+        verdicts.put(checkedClass.getName(), verdict);
+
+        while (size() > maximumSize) {
+            final Iterator<String> eldest = getLargestVerdicts().keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+
+
+    /**
+     * Forgets all verdicts, e.g. because the rules changed
+     */
+    synchronized void clear() {
+        verdictsByClassLoader.clear();
+    }
+
+
+    @Nonnull
+    synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(hitCount, missCount, evictionCount, size());
+    }
+
+
+    @Nonnull
+    private LinkedHashMap<String, Boolean> getLargestVerdicts() {
+        LinkedHashMap<String, Boolean> largestVerdicts = new LinkedHashMap<>();
+        for (final LinkedHashMap<String, Boolean> verdicts : verdictsByClassLoader.values()) {
+            if (verdicts.size() > largestVerdicts.size()) {
+                largestVerdicts = verdicts;
+            }
+        }
+        return largestVerdicts;
+    }
+
+
+    private int size() {
+        int size = 0;
+        for (final LinkedHashMap<String, Boolean> verdicts : verdictsByClassLoader.values()) {
+            size += verdicts.size();
+        }
+        return size;
+    }
+}
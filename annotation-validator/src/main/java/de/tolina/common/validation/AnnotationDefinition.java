@@ -18,6 +18,7 @@ package de.tolina.common.validation;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.StringJoiner;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -48,15 +49,49 @@ public class AnnotationDefinition {
 	 * Describes an Annotation parameter
 	 *
 	 * @param method Name of the Method that represents the Parameter
-	 * @param values Values of the parameter
+	 * @param values Values of the parameter, Annotation values may be given as nested AnnotationDefinitions
 	 */
 	@Nonnull
 	public AnnotationDefinition param(@Nonnull final String method, @Nullable final Object... values) {
-		final AnnotationMethodDefinition annotationMethodDefinition = new AnnotationMethodDefinition(method, values);
+		return param(method, ValueMatchers.equalTo(values));
+	}
+
+	/**
+	 * Describes an Annotation parameter whose value is checked by the given matcher, see {@link ValueMatchers}
+	 *
+	 * @param method Name of the Method that represents the Parameter
+	 * @param matcher checks the value of the parameter
+	 */
+	@Nonnull
+	public AnnotationDefinition param(@Nonnull final String method, @Nonnull final ValueMatcher matcher) {
+		final AnnotationMethodDefinition annotationMethodDefinition = new AnnotationMethodDefinition(method, matcher);
 		annotationMethodDefinitions.add(annotationMethodDefinition);
 		return AnnotationDefinition.this;
 	}
 
+	@Override
+	public String toString() {
+		final StringJoiner description = new StringJoiner(", ", "@" + annotation.getName() + "(", ")");
+		for (final AnnotationMethodDefinition annotationMethodDefinition : annotationMethodDefinitions) {
+			description.add(annotationMethodDefinition.getMethod() + "=" + annotationMethodDefinition.getMatcher()
+					.describe());
+		}
+		return description.toString();
+	}
+
+	/**
+	 * @return true if the description of this definition identifies everything it accepts, see
+	 * {@link ValueMatcher#isDescribedCompletely()}
+	 */
+	boolean isDescribedCompletely() {
+		for (final AnnotationMethodDefinition annotationMethodDefinition : annotationMethodDefinitions) {
+			if (!annotationMethodDefinition.getMatcher().isDescribedCompletely()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Nonnull
 	Class<? extends Annotation> getAnnotation() {
 		return annotation;
@@ -68,15 +103,15 @@ public class AnnotationDefinition {
 	}
 
 	/**
-	 * Holds Method names and Parameters
+	 * Holds Method names and the matchers for their values
 	 */
 	static class AnnotationMethodDefinition {
 		private String method;
-		private Object[] values;
+		private ValueMatcher matcher;
 
-		private AnnotationMethodDefinition(@Nonnull final String method, @Nullable final Object[] values) {
+		private AnnotationMethodDefinition(@Nonnull final String method, @Nonnull final ValueMatcher matcher) {
 			this.method = method;
-			this.values = values;
+			this.matcher = matcher;
 		}
 
 		@Nonnull
@@ -84,9 +119,9 @@ public class AnnotationDefinition {
 			return method;
 		}
 
-		@Nullable
-		Object[] getValues() {
-			return values;
+		@Nonnull
+		ValueMatcher getMatcher() {
+			return matcher;
 		}
 	}
 }
@@ -0,0 +1,120 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.util.Collections;
+
+import static de.tolina.common.validation.ValidationMode.DEFAULT;
+
+
+/**
+ * Compares Annotation valued attributes structurally with a nested {@link AnnotationDefinition}
+ * <br> - the type has to match by name, all defined parameters have to match and all others have to keep their
+ * defaults, just like the validation of an element's Annotations
+ * <br> - the verdict is remembered per Annotation instance, nested Annotations are shared by all copies of the
+ * arrays returned by their attribute Methods, so they are not compared again
+ */
+final class AnnotationDefinitionMatcher implements ValueMatcher {
+
+    private final AnnotationDefinition annotationDefinition;
+    private volatile CompiledAnnotationCheck compiledCheck;
+    // checks for same named types of other class loaders, held softly because they reference their type
+    private final WeakIdentityCache<Class<? extends Annotation>, Reference<CompiledAnnotationCheck>> foreignChecks =
+            new WeakIdentityCache<>();
+    private final WeakIdentityCache<Annotation, Boolean> verdicts = new WeakIdentityCache<>();
+
+
+    AnnotationDefinitionMatcher(
+            @Nonnull final AnnotationDefinition annotationDefinition) {
+        this.annotationDefinition = annotationDefinition;
+    }
+
+
+    @Override
+    public boolean matches(
+            @Nullable final Object actualValue) {
+        if (!(actualValue instanceof Annotation)) {
+            return false;
+        }
+
+        final Annotation annotation = (Annotation) actualValue;
+        final Boolean rememberedVerdict = verdicts.get(annotation);
+        if (rememberedVerdict != null) {
+            return rememberedVerdict;
+        }
+
+        final boolean verdict = compare(annotation);
+        verdicts.put(annotation, verdict);
+        return verdict;
+    }
+
+
+    @Nonnull
+    @Override
+    public String describe() {
+        return "value " + annotationDefinition;
+    }
+
+
+    @Override
+    public boolean isDescribedCompletely() {
+        return annotationDefinition.isDescribedCompletely();
+    }
+
+
+    private boolean compare(
+            @Nonnull final Annotation annotation) {
+        final Class<? extends Annotation> annotationType = annotation.annotationType();
+        if (!annotationType.getName().equals(annotationDefinition.getAnnotation().getName())) {
+            return false;
+        }
+
+        final Violations violations = new Violations(annotation, DEFAULT);
+        getCompiledCheck(annotationType).validate(violations, annotation);
+        return violations.getMessages().isEmpty();
+    }
+
+
+    @Nonnull
+    private CompiledAnnotationCheck getCompiledCheck(
+            @Nonnull final Class<? extends Annotation> annotationType) {
+        if (annotationType == annotationDefinition.getAnnotation()) {
+            CompiledAnnotationCheck ownCheck = compiledCheck;
+            if (ownCheck == null) {
+                ownCheck = CompiledAnnotationCheck.compile(annotationDefinition, annotationType,
+                        Collections.emptySet(), DEFAULT);
+                compiledCheck = ownCheck;
+            }
+            return ownCheck;
+        }
+
+        final Reference<CompiledAnnotationCheck> reference = foreignChecks.get(annotationType);
+        final CompiledAnnotationCheck foreignCheck = reference == null ? null : reference.get();
+        if (foreignCheck != null) {
+            return foreignCheck;
+        }
+
+        final CompiledAnnotationCheck createdCheck =
+                CompiledAnnotationCheck.compile(annotationDefinition, annotationType, Collections.emptySet(), DEFAULT);
+        foreignChecks.put(annotationType, new SoftReference<>(createdCheck));
+        return createdCheck;
+    }
+}
@@ -0,0 +1,307 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.file.Path;
+import java.util.*;
+
+import static java.lang.String.format;
+
+
+/**
+ * An inverted index of the effective Annotations of Classes and all their declared members
+ * <br> - the Annotations are resolved once like {@link TypeHierarchy#getAllAnnotationsFor(Object)}
+ * <br> - each element gets a number, Annotation types, attribute values, packages and element kinds are mapped to
+ * bitmaps of these numbers
+ * <br> - {@link #query()} combines the bitmaps without reflecting again
+ * <br> - elements are identified by their signature, the index does not refer to any Class
+ * <br>
+ * <br> The index is immutable, its maps are unmodifiable and bitmaps are handed out as copies, so queries may run
+ * concurrently.
+ */
+public final class AnnotationIndex {
+
+    /**
+     * Kinds of indexed elements
+     */
+    enum Kind {
+        CLASS, CONSTRUCTOR, METHOD, FIELD, PARAMETER
+    }
+
+    private final List<String> signatures;
+    private final Map<Kind, BitSet> elementsByKind;
+    private final Map<String, BitSet> elementsByPackage;
+    private final Map<String, BitSet> elementsByType;
+    private final Map<String, Map<String, Map<String, BitSet>>> elementsByValue;
+
+
+    private AnnotationIndex(
+            @Nonnull final Builder builder) {
+        signatures = Collections.unmodifiableList(builder.signatures);
+        elementsByKind = Collections.unmodifiableMap(builder.elementsByKind);
+        elementsByPackage = Collections.unmodifiableMap(builder.elementsByPackage);
+        elementsByType = Collections.unmodifiableMap(builder.elementsByType);
+        final Map<String, Map<String, Map<String, BitSet>>> valuesByType = new HashMap<>();
+        builder.elementsByValue.forEach((type, elementsByAttribute) -> {
+            final Map<String, Map<String, BitSet>> valuesByAttribute = new HashMap<>();
+            elementsByAttribute.forEach((attribute, elementsOfValue) ->
+                    valuesByAttribute.put(attribute, Collections.unmodifiableMap(elementsOfValue)));
+            valuesByType.put(type, Collections.unmodifiableMap(valuesByAttribute));
+        });
+        elementsByValue = Collections.unmodifiableMap(valuesByType);
+    }
+
+
+    /**
+     * Indexes the given Classes and all their declared members
+     *
+     * @param classes the Classes to be indexed
+     * @return the index
+     */
+    @Nonnull
+    public static AnnotationIndex of(
+            @Nonnull final Class<?>... classes) {
+        return of(Arrays.asList(classes));
+    }
+
+
+    /**
+     * Indexes the given Classes and all their declared members
+     *
+     * @param classes the Classes to be indexed
+     * @return the index
+     */
+    @Nonnull
+    public static AnnotationIndex of(
+            @Nonnull final Iterable<Class<?>> classes) {
+        final Builder builder = new Builder();
+        final TypeHierarchy typeHierarchy = new TypeHierarchy();
+        for (final Class<?> annotatedClass : classes) {
+            for (final Object annotatedElement : typeHierarchy.getAnnotatedElements(annotatedClass)) {
+                builder.add(annotatedElement, AnnotationLayout.of(annotatedElement, typeHierarchy));
+            }
+        }
+        return new AnnotationIndex(builder);
+    }
+
+
+    /**
+     * Indexes all Classes of the given class path entries and their declared members
+     * <br> The Classes are loaded without being initialized, anonymous and synthetic Classes are skipped.
+     *
+     * @param classLoader loads the Classes, e.g. a class loader for the entries and their dependencies
+     * @param classPathEntries directories or jar files whose Classes are to be indexed
+     * @return the index
+     * @throws IOException if a class path entry could not be read
+     * @throws IllegalStateException if a Class could not be loaded
+     */
+    @Nonnull
+    public static AnnotationIndex scan(
+            @Nonnull final ClassLoader classLoader,
+            @Nonnull final Path... classPathEntries) throws IOException {
+        final List<Class<?>> classes = new ArrayList<>();
+        for (final Path classPathEntry : classPathEntries) {
+            for (final String className : ClassPathScanner.getClassNames(classPathEntry)) {
+                final Class<?> annotatedClass;
+                try {
+                    annotatedClass = Class.forName(className, false, classLoader);
+                } catch (ClassNotFoundException | LinkageError e) {
+                    throw new IllegalStateException(format("Could not load class: %s", className), e);
+                }
+                if (!annotatedClass.isAnonymousClass() && !annotatedClass.isSynthetic()) {
+                    classes.add(annotatedClass);
+                }
+            }
+        }
+        return of(classes);
+    }
+
+
+    /**
+     * @return a query matching all indexed elements until it is narrowed down
+     */
+    @Nonnull
+    public AnnotationQuery query() {
+        return new AnnotationQuery(this);
+    }
+
+
+    /**
+     * @return the number of indexed elements
+     */
+    public int size() {
+        return signatures.size();
+    }
+
+
+    @Nonnull
+    private static Kind kindOf(
+            @Nonnull final Object annotatedElement) {
+        if (annotatedElement instanceof Class) {
+            return Kind.CLASS;
+        }
+        if (annotatedElement instanceof Constructor) {
+            return Kind.CONSTRUCTOR;
+        }
+        if (annotatedElement instanceof Method) {
+            return Kind.METHOD;
+        }
+        if (annotatedElement instanceof Field) {
+            return Kind.FIELD;
+        }
+        return Kind.PARAMETER;
+    }
+
+
+    @Nonnull
+    static Class<?> declaringClassOf(
+            @Nonnull final Object annotatedElement) {
+        if (annotatedElement instanceof Class) {
+            return (Class<?>) annotatedElement;
+        }
+        if (annotatedElement instanceof Parameter) {
+            return ((Parameter) annotatedElement).getDeclaringExecutable().getDeclaringClass();
+        }
+        return ((Member) annotatedElement).getDeclaringClass();
+    }
+
+
+    @Nonnull
+    private static String packageOf(
+            @Nonnull final Class<?> aClass) {
+        final String className = aClass.getName();
+        final int packageSeparator = className.lastIndexOf('.');
+        return packageSeparator < 0 ? "" : className.substring(0, packageSeparator);
+    }
+
+
+    /**
+     * @return all indexed elements
+     */
+    @Nonnull
+    BitSet getAllElements() {
+        final BitSet allElements = new BitSet(signatures.size());
+        allElements.set(0, signatures.size());
+        return allElements;
+    }
+
+
+    /**
+     * @return a copy of the elements of the given kind
+     */
+    @Nonnull
+    BitSet getElements(
+            @Nonnull final Kind kind) {
+        return copyOf(elementsByKind.get(kind));
+    }
+
+
+    /**
+     * @return the elements of the given package and its subpackages
+     */
+    @Nonnull
+    BitSet getElementsInPackage(
+            @Nonnull final String packageName) {
+        final BitSet elements = new BitSet();
+        elementsByPackage.forEach((name, elementsOfPackage) -> {
+            if (name.equals(packageName) || name.startsWith(packageName + ".")) {
+                elements.or(elementsOfPackage);
+            }
+        });
+        return elements;
+    }
+
+
+    /**
+     * @return a copy of the elements annotated with the given type
+     */
+    @Nonnull
+    BitSet getElementsAnnotatedWith(
+            @Nonnull final String annotationType) {
+        return copyOf(elementsByType.get(annotationType));
+    }
+
+
+    /**
+     * @return a copy of the elements whose Annotation of the given type has the given canonical attribute value
+     */
+    @Nonnull
+    BitSet getElementsWithValue(
+            @Nonnull final String annotationType,
+            @Nonnull final String attribute,
+            @Nonnull final String canonicalValue) {
+        return copyOf(elementsByValue.getOrDefault(annotationType, Collections.emptyMap())
+                .getOrDefault(attribute, Collections.emptyMap())
+                .get(canonicalValue));
+    }
+
+
+    @Nonnull
+    private static BitSet copyOf(
+            @Nullable final BitSet elements) {
+        return elements == null ? new BitSet() : (BitSet) elements.clone();
+    }
+
+
+    @Nonnull
+    String getSignature(
+            final int element) {
+        return signatures.get(element);
+    }
+
+
+    /**
+     * Collects the elements while indexing, the index itself gets unmodifiable views
+     */
+    private static final class Builder {
+
+        private final List<String> signatures = new ArrayList<>();
+        private final Map<Kind, BitSet> elementsByKind = new EnumMap<>(Kind.class);
+        private final Map<String, BitSet> elementsByPackage = new HashMap<>();
+        private final Map<String, BitSet> elementsByType = new HashMap<>();
+        private final Map<String, Map<String, Map<String, BitSet>>> elementsByValue = new HashMap<>();
+
+
+        private void add(
+                @Nonnull final Object annotatedElement,
+                @Nonnull final AnnotationLayout layout) {
+            final int element = signatures.size();
+            signatures.add(layout.getSignature());
+
+            elementsByKind.computeIfAbsent(kindOf(annotatedElement), kind -> new BitSet()).set(element);
+            elementsByPackage.computeIfAbsent(packageOf(declaringClassOf(annotatedElement)), name -> new BitSet())
+                    .set(element);
+
+            layout.getAnnotations().forEach((type, attributes) -> {
+                elementsByType.computeIfAbsent(type, name -> new BitSet()).set(element);
+                final Map<String, Map<String, BitSet>> elementsByAttribute =
+                        elementsByValue.computeIfAbsent(type, name -> new HashMap<>());
+                attributes.forEach((attribute, value) -> elementsByAttribute
+                        .computeIfAbsent(attribute, name -> new HashMap<>())
+                        .computeIfAbsent(value, name -> new BitSet())
+                        .set(element));
+            });
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.*;
+
+import static java.lang.String.format;
+
+
+/**
+ * The effective Annotations of one element as resolved by {@link TypeHierarchy}, reduced to Strings
+ * <br> - the element is identified by a signature that is stable across builds and class loaders
+ * <br> - Annotations keep their hierarchy order, attributes are sorted by name
+ * <br> - attribute values are rendered canonically, so equal layouts have equal Strings
+ */
+final class AnnotationLayout {
+
+    private final String signature;
+    private final LinkedHashMap<String, SortedMap<String, String>> annotations;
+
+
+    AnnotationLayout(
+            @Nonnull final String signature,
+            @Nonnull final LinkedHashMap<String, SortedMap<String, String>> annotations) {
+        this.signature = signature;
+        this.annotations = annotations;
+    }
+
+
+    /**
+     * Resolves the layout of the given element
+     *
+     * @param annotated a Class, Method, Field, Constructor or Parameter
+     * @param typeHierarchy resolves the Annotations of the given element
+     * @return the layout of the element
+     */
+    @Nonnull
+    static AnnotationLayout of(
+            @Nonnull final Object annotated,
+            @Nonnull final TypeHierarchy typeHierarchy) {
+        final LinkedHashMap<String, SortedMap<String, String>> annotations = new LinkedHashMap<>();
+        for (final Annotation annotation : typeHierarchy.getAllAnnotationsFor(annotated)) {
+            // the element's own Annotation comes first and hides the copies of its supertypes
+            annotations.computeIfAbsent(annotation.annotationType().getName(), type -> attributesOf(annotation));
+        }
+        return new AnnotationLayout(signatureOf(annotated), annotations);
+    }
+
+
+    /**
+     * Calls dependent on the type of the given Object:
+     * <br> - Classes are identified by their name
+     * <br> - members by <code>Class#name</code>, Methods and Constructors with their parameter types
+     * <br> - Parameters by their Method or Constructor and their position
+     *
+     * @param annotated a Class, Method, Field, Constructor or Parameter
+     * @return the signature of the given element
+     */
+    @Nonnull
+    static String signatureOf(
+            @Nonnull final Object annotated) {
+        if (annotated instanceof Class) {
+            return ((Class<?>) annotated).getName();
+        }
+
+        if (annotated instanceof Field) {
+            final Field field = (Field) annotated;
+            return field.getDeclaringClass().getName() + "#" + field.getName();
+        }
+
+        if (annotated instanceof Parameter) {
+            final Parameter parameter = (Parameter) annotated;
+            final Executable executable = parameter.getDeclaringExecutable();
+            return signatureOf(executable) + "[" + Arrays.asList(executable.getParameters()).indexOf(parameter) + "]";
+        }
+
+        final Executable executable = (Executable) annotated;
+        final StringJoiner parameterTypes = new StringJoiner(",", "(", ")");
+        for (final Class<?> parameterType : executable.getParameterTypes()) {
+            parameterTypes.add(parameterType.getName());
+        }
+        final String name = executable instanceof Constructor ? "<init>" : executable.getName();
+        return executable.getDeclaringClass().getName() + "#" + name + parameterTypes;
+    }
+
+
+    /**
+     * @return the names of all attributes of the given Annotation mapped to their canonical values, shared by all
+     * callers through the {@link AttributeSnapshot} of the Annotation
+     * @throws IllegalStateException if an attribute could not be read
+     */
+    @Nonnull
+    static SortedMap<String, String> attributesOf(
+            @Nonnull final Annotation annotation) {
+        return AttributeSnapshot.of(annotation).getCanonicalAttributes(annotation);
+    }
+
+
+    /**
+     * Renders an attribute value independently of its class loader, Strings are quoted to tell them apart from
+     * other values, quotes and backslashes within them are escaped, so they cannot be mistaken for the structure
+     * of arrays or nested Annotations
+     */
+    @Nonnull
+    static String canonicalValueOf(
+            @Nonnull final Object value) {
+        if (value instanceof String) {
+            return "\"" + ((String) value).replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        }
+
+        if (value instanceof Class) {
+            return ((Class<?>) value).getName() + ".class";
+        }
+
+        if (value instanceof Enum) {
+            final Enum<?> enumValue = (Enum<?>) value;
+            return enumValue.getDeclaringClass().getName() + "." + enumValue.name();
+        }
+
+        if (value instanceof Annotation) {
+            final Annotation annotation = (Annotation) value;
+            final String prefix = "@" + annotation.annotationType().getName() + "(";
+            final StringJoiner attributes = new StringJoiner(", ", prefix, ")");
+            attributesOf(annotation).forEach((name, attributeValue) -> attributes.add(name + "=" + attributeValue));
+            return attributes.toString();
+        }
+
+        if (value.getClass().isArray()) {
+            final StringJoiner elements = new StringJoiner(", ", "{", "}");
+            for (int i = 0; i < Array.getLength(value); i++) {
+                elements.add(canonicalValueOf(Array.get(value, i)));
+            }
+            return elements.toString();
+        }
+
+        return value.toString();
+    }
+
+
+    @Nonnull
+    String getSignature() {
+        return signature;
+    }
+
+
+    /**
+     * @return Annotation type names in hierarchy order mapped to their attributes
+     */
+    @Nonnull
+    Map<String, SortedMap<String, String>> getAnnotations() {
+        return Collections.unmodifiableMap(annotations);
+    }
+
+
+    /**
+     * Compares this layout with the given one, reporting all differences
+     *
+     * @param actual the layout to compare with, this layout is the expected one
+     * @return a message for each difference
+     */
+    @Nonnull
+    List<String> differencesTo(
+            @Nonnull final AnnotationLayout actual) {
+        return differencesTo(actual, ValidationMode.EXACTLY);
+    }
+
+
+    /**
+     * Compares this layout with the given one like a validation with all Annotations and attributes of this layout
+     * defined:
+     * <br> - {@link ValidationMode#DEFAULT} reports missing Annotations and changed values
+     * <br> - {@link ValidationMode#ONLY} reports unexpected Annotations and a changed order as well
+     * <br> - {@link ValidationMode#EXACTLY} reports unexpected attributes as well
+     *
+     * @param actual the layout to compare with, this layout is the expected one
+     * @param validationMode which differences are reported
+     * @return a message for each difference
+     */
+    @Nonnull
+    List<String> differencesTo(
+            @Nonnull final AnnotationLayout actual,
+            @Nonnull final ValidationMode validationMode) {
+        final List<String> differences = new ArrayList<>();
+
+        annotations.forEach((type, expectedAttributes) -> {
+            final SortedMap<String, String> actualAttributes = actual.annotations.get(type);
+            if (actualAttributes == null) {
+                differences.add(format("Expected Annotation %s not found", type));
+                return;
+            }
+
+            expectedAttributes.forEach((name, expectedValue) -> {
+                final String actualValue = actualAttributes.get(name);
+                if (!expectedValue.equals(actualValue)) {
+                    differences.add(format("Expected value %s for Method '%s' of %s but was %s", expectedValue, name,
+                            type, actualValue));
+                }
+            });
+
+            if (validationMode == ValidationMode.EXACTLY) {
+                actualAttributes.keySet().stream()
+                        .filter(name -> !expectedAttributes.containsKey(name))
+                        .forEachOrdered(name -> differences.add(format("Unexpected Method '%s' of %s found", name,
+                                type)));
+            }
+        });
+
+        if (validationMode == ValidationMode.DEFAULT) {
+            return differences;
+        }
+
+        actual.annotations.keySet().stream()
+                .filter(type -> !annotations.containsKey(type))
+                .forEachOrdered(type -> differences.add(format("Unexpected Annotation %s found", type)));
+
+        final List<String> expectedOrder = new ArrayList<>(annotations.keySet());
+        final List<String> actualOrder = new ArrayList<>(actual.annotations.keySet());
+        if (differences.isEmpty() && !expectedOrder.equals(actualOrder)) {
+            differences.add(format("Expected Annotations in order %s but was %s", expectedOrder, actualOrder));
+        }
+
+        return differences;
+    }
+
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        final AnnotationLayout that = (AnnotationLayout) other;
+        return signature.equals(that.signature)
+                && new ArrayList<>(annotations.entrySet()).equals(new ArrayList<>(that.annotations.entrySet()));
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(signature, annotations);
+    }
+
+
+    @Override
+    public String toString() {
+        return signature + " " + annotations;
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static de.tolina.common.validation.AnnotationIndex.Kind;
+
+
+/**
+ * Narrows down the elements of an {@link AnnotationIndex}, each condition is an operation on bitmaps
+ * <br> e.g. all Methods with <code>@Transactional(readOnly = false)</code> in package <code>com.example</code>:
+ * <br> <code>index.query().methods().inPackage("com.example").with(Transactional.class, "readOnly", false)</code>
+ */
+public final class AnnotationQuery {
+
+    private final AnnotationIndex index;
+    private final BitSet elements;
+
+
+    AnnotationQuery(
+            @Nonnull final AnnotationIndex index) {
+        this.index = index;
+        elements = index.getAllElements();
+    }
+
+
+    /**
+     * Keeps the elements with the given Annotation
+     *
+     * @param annotation the Annotation type
+     * @return the AnnotationQuery
+     */
+    @Nonnull
+    public AnnotationQuery with(
+            @Nonnull final Class<? extends Annotation> annotation) {
+        elements.and(index.getElementsAnnotatedWith(annotation.getName()));
+        return this;
+    }
+
+
+    /**
+     * Keeps the elements whose Annotation of the given type has the given attribute value
+     *
+     * @param annotation the Annotation type
+     * @param attribute name of the attribute Method
+     * @param values the value, all values in declaration order for array attributes
+     * @return the AnnotationQuery
+     */
+    @Nonnull
+    public AnnotationQuery with(
+            @Nonnull final Class<? extends Annotation> annotation,
+            @Nonnull final String attribute,
+            @Nonnull final Object... values) {
+        final Object value = values.length == 1 && (values[0].getClass().isArray() || !isArray(annotation, attribute))
+                ? values[0]
+                : values;
+        elements.and(index.getElementsWithValue(annotation.getName(), attribute,
+                AnnotationLayout.canonicalValueOf(value)));
+        return this;
+    }
+
+
+    /**
+     * Removes the elements with the given Annotation
+     *
+     * @param annotation the Annotation type
+     * @return the AnnotationQuery
+     */
+    @Nonnull
+    public AnnotationQuery without(
+            @Nonnull final Class<? extends Annotation> annotation) {
+        elements.andNot(index.getElementsAnnotatedWith(annotation.getName()));
+        return this;
+    }
+
+
+    /**
+     * Keeps the elements declared in the given package or its subpackages
+     *
+     * @param packageName the package name
+     * @return the AnnotationQuery
+     */
+    @Nonnull
+    public AnnotationQuery inPackage(
+            @Nonnull final String packageName) {
+        elements.and(index.getElementsInPackage(packageName));
+        return this;
+    }
+
+
+    /**
+     * @return the AnnotationQuery keeping only Classes
+     */
+    @Nonnull
+    public AnnotationQuery classes() {
+        return only(Kind.CLASS);
+    }
+
+
+    /**
+     * @return the AnnotationQuery keeping only Constructors
+     */
+    @Nonnull
+    public AnnotationQuery constructors() {
+        return only(Kind.CONSTRUCTOR);
+    }
+
+
+    /**
+     * @return the AnnotationQuery keeping only Methods
+     */
+    @Nonnull
+    public AnnotationQuery methods() {
+        return only(Kind.METHOD);
+    }
+
+
+    /**
+     * @return the AnnotationQuery keeping only Fields
+     */
+    @Nonnull
+    public AnnotationQuery fields() {
+        return only(Kind.FIELD);
+    }
+
+
+    /**
+     * @return the AnnotationQuery keeping only Parameters
+     */
+    @Nonnull
+    public AnnotationQuery parameters() {
+        return only(Kind.PARAMETER);
+    }
+
+
+    /**
+     * @return the number of matching elements
+     */
+    public int count() {
+        return elements.cardinality();
+    }
+
+
+    /**
+     * @return the signatures of all matching elements in index order, e.g. <code>com.example.Service#find(long)</code>
+     */
+    @Nonnull
+    public List<String> getElements() {
+        final List<String> signatures = new ArrayList<>(elements.cardinality());
+        for (int element = elements.nextSetBit(0); element >= 0; element = elements.nextSetBit(element + 1)) {
+            signatures.add(index.getSignature(element));
+        }
+        return signatures;
+    }
+
+
+    @Nonnull
+    private AnnotationQuery only(
+            @Nonnull final Kind kind) {
+        elements.and(index.getElements(kind));
+        return this;
+    }
+
+
+    private static boolean isArray(
+            @Nonnull final Class<? extends Annotation> annotation,
+            @Nonnull final String attribute) {
+        try {
+            return annotation.getMethod(attribute).getReturnType().isArray();
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
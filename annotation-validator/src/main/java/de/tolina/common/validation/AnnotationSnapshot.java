@@ -0,0 +1,252 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * Approval style validation against a recorded annotation layout
+ * <br> - {@link #record(Path, Iterable)} writes the resolved Annotations and attribute values of Classes and all
+ * their members to a compact binary file
+ * <br> - {@link #load(Path)} maps such a file into memory, elements are only decoded when they are validated
+ * <br> - {@link #forClass(Class)} fails for every element whose Annotations differ from the recorded ones
+ */
+public final class AnnotationSnapshot {
+
+    private static final int MAGIC = 0x414E4E53;
+    private static final int VERSION = 2;
+
+    private final Path snapshotFile;
+    private final String[] strings;
+    private final ByteBuffer buffer;
+    private final Map<String, Integer> offsetsBySignature;
+    private final Map<String, List<String>> signaturesByClass;
+
+
+    private AnnotationSnapshot(
+            @Nonnull final Path snapshotFile,
+            @Nonnull final ByteBuffer buffer) {
+        this.snapshotFile = snapshotFile;
+        this.buffer = buffer;
+
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IllegalArgumentException(format("%s is not an annotation snapshot of version %d.", snapshotFile,
+                    VERSION));
+        }
+
+        strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            final byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, UTF_8);
+        }
+
+        final int elementCount = buffer.getInt();
+        offsetsBySignature = new HashMap<>(elementCount * 2);
+        signaturesByClass = new HashMap<>();
+        for (int i = 0; i < elementCount; i++) {
+            final int offset = buffer.position();
+            final String signature = strings[buffer.getInt()];
+            offsetsBySignature.put(signature, offset);
+            signaturesByClass.computeIfAbsent(classNameOf(signature), name -> new ArrayList<>()).add(signature);
+
+            final int annotationCount = buffer.getInt();
+            for (int j = 0; j < annotationCount; j++) {
+                buffer.getInt();
+                final int attributeCount = buffer.getInt();
+                buffer.position(buffer.position() + attributeCount * 2 * Integer.BYTES);
+            }
+        }
+    }
+
+
+    /**
+     * Records the annotation layout of the given Classes and all their declared members
+     *
+     * @param snapshotFile the file to be written, an existing file is replaced
+     * @param classes the Classes to be recorded
+     * @throws IOException if the file could not be written
+     */
+    public static void record(
+            @Nonnull final Path snapshotFile,
+            @Nonnull final Class<?>... classes) throws IOException {
+        record(snapshotFile, Arrays.asList(classes));
+    }
+
+
+    /**
+     * Records the annotation layout of the given Classes and all their declared members
+     *
+     * @param snapshotFile the file to be written, an existing file is replaced
+     * @param classes the Classes to be recorded
+     * @throws IOException if the file could not be written
+     */
+    public static void record(
+            @Nonnull final Path snapshotFile,
+            @Nonnull final Iterable<Class<?>> classes) throws IOException {
+        final TypeHierarchy typeHierarchy = new TypeHierarchy();
+        final List<AnnotationLayout> layouts = new ArrayList<>();
+        final Map<String, Integer> stringTable = new LinkedHashMap<>();
+
+        for (final Class<?> annotatedClass : classes) {
+            for (final Object annotatedElement : typeHierarchy.getAnnotatedElements(annotatedClass)) {
+                final AnnotationLayout layout = AnnotationLayout.of(annotatedElement, typeHierarchy);
+                layouts.add(layout);
+
+                stringTable.putIfAbsent(layout.getSignature(), stringTable.size());
+                layout.getAnnotations().forEach((type, attributes) -> {
+                    stringTable.putIfAbsent(type, stringTable.size());
+                    attributes.forEach((name, value) -> {
+                        stringTable.putIfAbsent(name, stringTable.size());
+                        stringTable.putIfAbsent(value, stringTable.size());
+                    });
+                });
+            }
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(stringTable.size());
+            for (final String string : stringTable.keySet()) {
+                final byte[] encoded = string.getBytes(UTF_8);
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+
+            out.writeInt(layouts.size());
+            for (final AnnotationLayout layout : layouts) {
+                out.writeInt(stringTable.get(layout.getSignature()));
+                out.writeInt(layout.getAnnotations().size());
+                for (final Map.Entry<String, SortedMap<String, String>> annotation
+                        : layout.getAnnotations().entrySet()) {
+                    out.writeInt(stringTable.get(annotation.getKey()));
+                    out.writeInt(annotation.getValue().size());
+                    for (final Map.Entry<String, String> attribute : annotation.getValue().entrySet()) {
+                        out.writeInt(stringTable.get(attribute.getKey()));
+                        out.writeInt(stringTable.get(attribute.getValue()));
+                    }
+                }
+            }
+        }
+
+        Files.write(snapshotFile, bytes.toByteArray());
+    }
+
+
+    /**
+     * Maps a snapshot written by {@link #record(Path, Iterable)} into memory
+     *
+     * @param snapshotFile the recorded file
+     * @return the snapshot to validate against
+     * @throws IOException if the file could not be read
+     */
+    @Nonnull
+    public static AnnotationSnapshot load(
+            @Nonnull final Path snapshotFile) throws IOException {
+        try (final FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            return new AnnotationSnapshot(snapshotFile, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+
+    /**
+     * Validates the given Class and all its declared members against the snapshot and checks that:
+     * <br> - all recorded elements are found and no other elements are present
+     * <br> - all recorded Annotations are found in recorded order and no other Annotations are present
+     * <br> - all attributes have their recorded values
+     *
+     * @param annotatedClass Class to be validated including its members
+     */
+    public void forClass(
+            @Nonnull final Class<?> annotatedClass) {
+        final TypeHierarchy typeHierarchy = new TypeHierarchy();
+        final List<String> errors = new ArrayList<>();
+        final Set<String> recordedSignatures =
+                new LinkedHashSet<>(signaturesByClass.getOrDefault(annotatedClass.getName(), Collections.emptyList()));
+
+        if (recordedSignatures.isEmpty()) {
+            errors.add(format("%s not recorded in snapshot %s", annotatedClass.getName(), snapshotFile));
+        } else {
+            for (final Object annotatedElement : typeHierarchy.getAnnotatedElements(annotatedClass)) {
+                final AnnotationLayout actual = AnnotationLayout.of(annotatedElement, typeHierarchy);
+                final String signature = actual.getSignature();
+
+                if (!recordedSignatures.remove(signature)) {
+                    errors.add(format("%s: not recorded in snapshot", signature));
+                    continue;
+                }
+
+                for (final String difference : layoutAt(offsetsBySignature.get(signature)).differencesTo(actual)) {
+                    errors.add(format("%s: %s", signature, difference));
+                }
+            }
+
+            for (final String signature : recordedSignatures) {
+                errors.add(format("%s: recorded in snapshot but not found", signature));
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new SoftAssertionErrorWithObjectDetails(errors, annotatedClass);
+        }
+    }
+
+
+    @Nonnull
+    private AnnotationLayout layoutAt(
+            final int offset) {
+        final ByteBuffer element = buffer.duplicate();
+        element.position(offset);
+
+        final String signature = strings[element.getInt()];
+        final LinkedHashMap<String, SortedMap<String, String>> annotations = new LinkedHashMap<>();
+        final int annotationCount = element.getInt();
+        for (int i = 0; i < annotationCount; i++) {
+            final String type = strings[element.getInt()];
+            final SortedMap<String, String> attributes = new TreeMap<>();
+            final int attributeCount = element.getInt();
+            for (int j = 0; j < attributeCount; j++) {
+                attributes.put(strings[element.getInt()], strings[element.getInt()]);
+            }
+            annotations.put(type, attributes);
+        }
+        return new AnnotationLayout(signature, annotations);
+    }
+
+
+    @Nonnull
+    private static String classNameOf(
+            @Nonnull final String signature) {
+        final int memberSeparator = signature.indexOf('#');
+        return memberSeparator < 0 ? signature : signature.substring(0, memberSeparator);
+    }
+}
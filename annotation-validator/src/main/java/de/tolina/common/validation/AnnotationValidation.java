@@ -0,0 +1,947 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import de.tolina.common.validation.ValidationEvents.Span;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static de.tolina.common.validation.ValidationEvents.Phase.*;
+import static de.tolina.common.validation.ValidationMode.*;
+import static java.lang.String.format;
+
+
+/**
+ * API for {@link AnnotationValidator}
+ */
+public class AnnotationValidation {
+
+    // visible for testing
+    HashSet<String> paramBlacklist;
+    private List<AnnotationDefinition> annotationDefinitions;
+    private ValidationMode validationMode;
+    private HierarchyTraversal traversal;
+    private AdmissionCache admissionCache;
+    private Sampling sampling;
+    // errors per layout fingerprint, elements with the same effective Annotations share their verdict
+    final Map<Long, ElementVerdict> layoutVerdicts = new ConcurrentHashMap<>();
+    // checks prepared per definition and Annotation type, which may come from several class loaders
+    private final Map<AnnotationDefinition, Map<Class<? extends Annotation>, CompiledAnnotationCheck>> compiledChecks =
+            new ConcurrentHashMap<>();
+    // checks for types of other class loaders that only match by name, held softly because they reference their type
+    private final Map<AnnotationDefinition,
+            WeakIdentityCache<Class<? extends Annotation>, Reference<CompiledAnnotationCheck>>> foreignCompiledChecks =
+            new ConcurrentHashMap<>();
+    // messages per definition and Annotation inherited from a supertype, shared by all its subtypes
+    private final Map<AnnotationDefinition, WeakIdentityCache<Annotation, List<String>>> inheritedVerdicts =
+            new ConcurrentHashMap<>();
+    // times of the Classes validated by inParallel, shared by all its instances
+    final ValidationCosts parallelCosts = new ValidationCosts();
+    // verdicts per element signature kept across JVMs, null unless enabled
+    private volatile WarmCache warmCache;
+    // version of rules that cannot be described completely, given by the caller of warmCache
+    private volatile String rulesVersion;
+    // identifies these rules in the warm cache, empty if they cannot be identified, null until computed
+    private volatile OptionalLong rulesKey;
+    // definitions in the order that rejects failing elements fastest, null until the first fail fast run
+    private volatile AdaptiveOrder<AnnotationDefinition> definitionOrder;
+    private static final int DEFAULT_CHECK_CACHE_SIZE = 10_000;
+    private static final int MAXIMUM_LAYOUT_VERDICTS = 100_000;
+
+
+    AnnotationValidation(
+            @Nonnull final HashSet<String> parametersBlacklist) {
+        validationMode = DEFAULT;
+        traversal = HierarchyTraversal.FULL;
+        paramBlacklist = parametersBlacklist;
+        annotationDefinitions = new ArrayList<>();
+        admissionCache = new AdmissionCache(DEFAULT_CHECK_CACHE_SIZE);
+    }
+
+
+    /**
+     * Adds an {@link AnnotationDefinition} to the Validator
+     *
+     * @param annotationDefinition the Annotation
+     * @return the AnnotationValidator
+     */
+    @Nonnull
+    public AnnotationValidation annotation(
+            @Nonnull final AnnotationDefinition annotationDefinition) {
+        annotationDefinitions.add(annotationDefinition);
+        invalidateCaches();
+        return this;
+    }
+
+
+    /**
+     * Validates that no other Annotations are defined and only the defined params are present.
+     *
+     * @return the AnnotationValidator
+     */
+    @Nonnull
+    public AnnotationValidation exactly() {
+        validationMode = EXACTLY;
+        invalidateCaches();
+        return this;
+    }
+
+
+    /**
+     * Validates that no other Annotations are defined considering default values for undefined params.
+     *
+     * @return the AnnotationValidator
+     */
+    @Nonnull
+    public AnnotationValidation only() {
+        validationMode = ONLY;
+        invalidateCaches();
+        return this;
+    }
+
+
+    /**
+     * Chooses where Annotations are looked up, defaults to {@link HierarchyTraversal#FULL}.
+     * <br> Rules that only need declared Annotations should use {@link HierarchyTraversal#DECLARED}, which skips
+     * the hierarchy walk entirely.
+     *
+     * @param hierarchyTraversal where Annotations are looked up
+     * @return the AnnotationValidator
+     */
+    @Nonnull
+    public AnnotationValidation traversal(
+            @Nonnull final HierarchyTraversal hierarchyTraversal) {
+        traversal = hierarchyTraversal;
+        invalidateCaches();
+        return this;
+    }
+
+
+    /**
+     * Forgets everything computed for the previous rules
+     */
+    private void invalidateCaches() {
+        admissionCache.clear();
+        layoutVerdicts.clear();
+        compiledChecks.clear();
+        foreignCompiledChecks.clear();
+        inheritedVerdicts.clear();
+        rulesKey = null;
+        definitionOrder = null;
+    }
+
+
+    /**
+     * Limits the number of verdicts remembered by {@link #check(Class)}, defaults to 10.000
+     *
+     * @param maximumSize maximum number of remembered verdicts, 0 disables remembering
+     * @return the AnnotationValidator
+     */
+    @Nonnull
+    public AnnotationValidation checkCacheSize(
+            final int maximumSize) {
+        admissionCache = new AdmissionCache(maximumSize);
+        return this;
+    }
+
+
+    /**
+     * Checks Annotations of the given Class like {@link #forClass(Class)} but returns the result instead of failing.
+     * <br> Results are remembered per Class until the rules change, without keeping the Class or its class loader
+     * from being unloaded. This method may be called concurrently.
+     * <br> Checking stops at the first failed check, definitions and their checks that rejected earlier Classes
+     * fastest run first. Reports of the other methods keep the declared order.
+     *
+     * @param annotatedClass Class to be checked
+     * @return true if the Class passes validation
+     */
+    public boolean check(
+            @Nonnull final Class<?> annotatedClass) {
+        final Boolean rememberedVerdict = admissionCache.get(annotatedClass);
+        if (rememberedVerdict != null) {
+            return rememberedVerdict;
+        }
+
+        final boolean verdict;
+        if (sampling == null) {
+            verdict = passes(annotatedClass, new TypeHierarchy());
+        } else if (sampling.isSampled(annotatedClass)) {
+            final long start = System.nanoTime();
+            verdict = passes(annotatedClass, new TypeHierarchy());
+            sampling.recordCost(System.nanoTime() - start);
+        } else if (validationMode == DEFAULT && annotationDefinitions.isEmpty()) {
+            // rejected like in full validation, so the remembered verdict does not depend on the path taken first
+            verdict = false;
+        } else {
+            final Set<Class<? extends Annotation>> definedAnnotationTypes = getDefinedAnnotationTypes();
+            verdict = new TypeHierarchy().findAnnotationsFor(annotatedClass, definedAnnotationTypes, traversal).size()
+                    == definedAnnotationTypes.size();
+        }
+        admissionCache.put(annotatedClass, verdict);
+        return verdict;
+    }
+
+
+    /**
+     * Lets {@link #check(Class)} validate only a sample of the Classes in full, all others only have to carry the
+     * defined Annotations regardless of their parameters
+     *
+     * @param classSampling decides which Classes are validated in full, null validates all of them
+     * @return the AnnotationValidator
+     */
+    @Nonnull
+    public AnnotationValidation sampling(
+            @Nullable final Sampling classSampling) {
+        sampling = classSampling;
+        admissionCache.clear();
+        return this;
+    }
+
+
+    /**
+     * @return hit and miss counts of the verdicts remembered by {@link #check(Class)}
+     */
+    @Nonnull
+    public CacheStatistics getCheckStatistics() {
+        return admissionCache.getStatistics();
+    }
+
+
+    /**
+     * Keeps the verdicts of these rules per element in the given file, so later JVMs with the same class path skip
+     * resolving and validating unchanged elements
+     * <br> - the class path of this JVM identifies the verdicts, including the entries of jar manifests
+     * <br> - only Classes loaded from the class path are kept, Classes of other class loaders are always validated
+     * <br> - rules with matchers that are not described completely, like {@link ValueMatchers#satisfying}, are not
+     * kept unless a version is given, see {@link #warmCache(Path, Iterable, String)}
+     * <br> - the file is read on first use and written when the JVM exits or by {@link #saveWarmCache()}
+     * <br> - verdicts of rules depending on anything but the class path, like system properties, must not be kept
+     *
+     * @param cacheFile the file keeping the verdicts, created if missing
+     * @return the AnnotationValidator
+     * @throws IOException if the class path could not be read
+     */
+    @Nonnull
+    public AnnotationValidation warmCache(
+            @Nonnull final Path cacheFile) throws IOException {
+        return warmCache(cacheFile, WarmCache.getSystemClassPath());
+    }
+
+
+    /**
+     * Keeps the verdicts of these rules per element in the given file like {@link #warmCache(Path)}, identified by
+     * the given class path instead of the one of this JVM
+     *
+     * @param cacheFile the file keeping the verdicts, created if missing
+     * @param classPathEntries jar files and class directories of the validated Classes and their rules
+     * @return the AnnotationValidator
+     * @throws IOException if the class path could not be read
+     */
+    @Nonnull
+    public AnnotationValidation warmCache(
+            @Nonnull final Path cacheFile,
+            @Nonnull final Iterable<Path> classPathEntries) throws IOException {
+        return warmCache(cacheFile, classPathEntries, null);
+    }
+
+
+    /**
+     * Keeps the verdicts of these rules per element in the given file like {@link #warmCache(Path, Iterable)}, also
+     * identified by the given version
+     * <br> The version stands for everything the descriptions of the rules do not tell, like the Predicates of
+     * {@link ValueMatchers#satisfying}, and has to change whenever they change.
+     *
+     * @param cacheFile the file keeping the verdicts, created if missing
+     * @param classPathEntries jar files and class directories of the validated Classes and their rules
+     * @param rulesVersion version of the rules, null to keep only rules that are described completely
+     * @return the AnnotationValidator
+     * @throws IOException if the class path could not be read
+     */
+    @Nonnull
+    public AnnotationValidation warmCache(
+            @Nonnull final Path cacheFile,
+            @Nonnull final Iterable<Path> classPathEntries,
+            @Nullable final String rulesVersion) throws IOException {
+        final WarmCache cache = new WarmCache(cacheFile, classPathEntries);
+        WarmCache.saveOnExit(cache);
+        this.rulesVersion = rulesVersion;
+        rulesKey = null;
+        warmCache = cache;
+        return this;
+    }
+
+
+    /**
+     * Writes the verdicts remembered by {@link #warmCache(Path)} without waiting for the JVM to exit
+     *
+     * @throws IOException if the file could not be written
+     */
+    public void saveWarmCache() throws IOException {
+        final WarmCache cache = warmCache;
+        if (cache != null) {
+            cache.save();
+        }
+    }
+
+
+    /**
+     * Validates Annotations of the given Class and checks that:
+     * <br> - all given Annotations are found
+     * <br> - no other Annotations are on the given Class
+     * <br> - Annotations are in correct order
+     *
+     * @param annotatedClass Class to be validated
+     */
+    public void forClass(
+            @Nonnull final Class<?> annotatedClass) {
+        forClassOrMethodOrField(annotatedClass);
+    }
+
+
+    public void forConstructor(@Nonnull final Constructor<?> annotatedContructor) {
+        forClassOrMethodOrField(annotatedContructor);
+    }
+
+
+    /**
+     * Validates Annotations of the given Method and checks that:
+     * <br> - all given Annotations are found
+     * <br> - no other Annotations are on the given Method
+     * <br> - Annotations are in correct order
+     *
+     * @param annotatedMethod Method to be validated
+     */
+    public void forMethod(
+            @Nonnull final Method annotatedMethod) {
+        forClassOrMethodOrField(annotatedMethod);
+    }
+
+
+    /**
+     * Validates Annotations of the given Field and checks that:
+     * <br> - all given Annotations are found
+     * <br> - no other Annotations are on the given Filed
+     * <br> - Annotations are in correct order
+     *
+     * @param annotatedField Field to be validated
+     */
+    public void forField(
+            @Nonnull final Field annotatedField) {
+        forClassOrMethodOrField(annotatedField);
+    }
+
+
+    /**
+     * Validates Annotations of the given Class and of all its declared Constructors, Methods, Fields and Parameters
+     * with the configured Annotations in a single pass over the type hierarchy.
+     * <br> Synthetic members are skipped, all failures are reported together.
+     *
+     * @param annotatedClass Class to be validated including its members
+     */
+    public void forClassDeep(
+            @Nonnull final Class<?> annotatedClass) {
+        final List<String> errors = new ArrayList<>();
+
+        for (final ValidationResult result : validateClassDeep(annotatedClass, new TypeHierarchy())) {
+            for (final String error : result.getErrors()) {
+                errors.add(format("%s: %s", result.getElement(), error));
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new SoftAssertionErrorWithObjectDetails(errors, annotatedClass);
+        }
+    }
+
+
+    /**
+     * Validates whole class path entries with these rules in a pool of threads
+     *
+     * @return a ParallelValidation that keeps these rules and the resolved type hierarchy between its runs, the
+     * times of the Classes are shared by all ParallelValidations of these rules
+     */
+    @Nonnull
+    public ParallelValidation inParallel() {
+        return new ParallelValidation(this);
+    }
+
+
+    /**
+     * Validates whole class path entries with these rules, loading their Classes batch by batch through class
+     * loaders that are released after each batch
+     *
+     * @return a BatchValidation with bounded heap and metaspace regardless of the number of Classes
+     */
+    @Nonnull
+    public BatchValidation inBatches() {
+        return new BatchValidation(this);
+    }
+
+
+    /**
+     * Streams elements through these rules with bounded parallelism and backpressure
+     *
+     * @return a ValidationPipeline to be configured and run
+     */
+    @Nonnull
+    public ValidationPipeline pipeline() {
+        return new ValidationPipeline(this);
+    }
+
+
+    /**
+     * Validates Annotations of the given element like {@link #forClass(Class)}, {@link #forMethod(Method)} or
+     * {@link #forField(Field)} but returns the result instead of failing
+     *
+     * @param annotatedElement a Class, a Method, a Field, a Constructor or a Parameter
+     * @return the result for the given element
+     */
+    @Nonnull
+    public ValidationResult resultFor(
+            @Nonnull final AnnotatedElement annotatedElement) {
+        return validateElement(annotatedElement, new TypeHierarchy());
+    }
+
+
+    /**
+     * Validates the given Class and all its declared members without failing
+     *
+     * @param annotatedClass Class to be validated including its members
+     * @param typeHierarchy resolves the Annotations, may be shared by several Classes
+     * @return one result per validated element
+     */
+    @Nonnull
+    List<ValidationResult> validateClassDeep(
+            @Nonnull final Class<?> annotatedClass,
+            @Nonnull final TypeHierarchy typeHierarchy) {
+        final List<ValidationResult> results = new ArrayList<>();
+        for (final Object annotatedElement : typeHierarchy.getAnnotatedElements(annotatedClass)) {
+            results.add(validateElement(annotatedElement, typeHierarchy));
+        }
+        return results;
+    }
+
+
+    /**
+     * Validates the given element without failing
+     *
+     * @param annotatedObject can be a Class, a Method, a Field, a Constructor or a Parameter
+     * @param typeHierarchy resolves the Annotations, may be shared by several elements
+     * @return the result for the given element
+     */
+    @Nonnull
+    ValidationResult validateElement(
+            @Nonnull final Object annotatedObject,
+            @Nonnull final TypeHierarchy typeHierarchy) {
+        final ElementVerdict verdict = validate(annotatedObject, typeHierarchy);
+        return new ValidationResult(describe(annotatedObject), verdict.getErrors(), verdict.getInheritedErrors());
+    }
+
+
+    /**
+     * Validates the configured Annotations
+     *
+     * @param annotatedObject can be a Class, a Method or a Field
+     */
+    private void forClassOrMethodOrField(
+            @Nonnull final Object annotatedObject) {
+        final ElementVerdict verdict = validate(annotatedObject, new TypeHierarchy());
+
+        if (!verdict.isValid()) {
+            throw new SoftAssertionErrorWithObjectDetails(verdict.getErrors(), annotatedObject);
+        }
+    }
+
+
+    /**
+     * Validates the configured Annotations
+     *
+     * @param annotatedObject can be a Class, a Method, a Field, a Constructor or a Parameter
+     * @param typeHierarchy resolves the Annotations of the given Object
+     * @return the messages of all failed assertions
+     */
+    @Nonnull
+    private ElementVerdict validate(
+            @Nonnull final Object annotatedObject,
+            @Nonnull final TypeHierarchy typeHierarchy) {
+        final WarmCache cache = warmCache;
+        final OptionalLong keptRules = cache == null ? OptionalLong.empty() : getRulesKey();
+        if (!keptRules.isPresent() || !cache.covers(AnnotationIndex.declaringClassOf(annotatedObject))) {
+            return validateLayout(annotatedObject, typeHierarchy);
+        }
+
+        final long rules = keptRules.getAsLong();
+        final String signature = AnnotationLayout.signatureOf(annotatedObject);
+        final ElementVerdict keptVerdict = cache.get(rules, signature);
+        if (keptVerdict != null) {
+            return keptVerdict;
+        }
+
+        final ElementVerdict verdict = validateLayout(annotatedObject, typeHierarchy);
+        cache.put(rules, signature, verdict);
+        return verdict;
+    }
+
+
+    /**
+     * Validates the configured Annotations, sharing verdicts between elements with the same layout fingerprint
+     */
+    @Nonnull
+    private ElementVerdict validateLayout(
+            @Nonnull final Object annotatedObject,
+            @Nonnull final TypeHierarchy typeHierarchy) {
+        final Span span = ValidationEvents.element(annotatedObject, validationMode);
+        try {
+            final ResolvedAnnotations resolved = resolve(annotatedObject, typeHierarchy);
+
+            final long fingerprint;
+            try {
+                fingerprint = fingerprintOf(annotatedObject, typeHierarchy, resolved);
+            } catch (final IllegalStateException e) {
+                // unreadable attributes are reported by the validation itself
+                return validateAnnotations(annotatedObject, typeHierarchy, resolved);
+            }
+
+            final ElementVerdict rememberedVerdict = layoutVerdicts.get(fingerprint);
+            if (rememberedVerdict != null) {
+                return rememberedVerdict;
+            }
+
+            final ElementVerdict verdict = validateAnnotations(annotatedObject, typeHierarchy, resolved);
+            if (layoutVerdicts.size() < MAXIMUM_LAYOUT_VERDICTS) {
+                layoutVerdicts.putIfAbsent(fingerprint, verdict);
+            }
+            return verdict;
+        } finally {
+            span.close();
+        }
+    }
+
+
+    /**
+     * Decides like {@link #validate(Object, TypeHierarchy)} whether the configured Annotations are valid, but stops at
+     * the first failed check
+     * <br> - definitions and their checks run in the order that rejected earlier elements fastest
+     * <br> - verdicts are shared with full validation through the layout fingerprint, passing ones are remembered
+     */
+    private boolean passes(
+            @Nonnull final Object annotatedObject,
+            @Nonnull final TypeHierarchy typeHierarchy) {
+        if (warmCache != null) {
+            return validate(annotatedObject, typeHierarchy).isValid();
+        }
+
+        final Span span = ValidationEvents.element(annotatedObject, validationMode);
+        try {
+            final ResolvedAnnotations resolved = resolve(annotatedObject, typeHierarchy);
+
+            Long fingerprint;
+            try {
+                fingerprint = fingerprintOf(annotatedObject, typeHierarchy, resolved);
+            } catch (final IllegalStateException e) {
+                // unreadable attributes fail their check
+                fingerprint = null;
+            }
+
+            final ElementVerdict rememberedVerdict = fingerprint == null ? null : layoutVerdicts.get(fingerprint);
+            if (rememberedVerdict != null) {
+                return rememberedVerdict.isValid();
+            }
+
+            final boolean passed = passesInAdaptiveOrder(annotatedObject, typeHierarchy, resolved);
+            if (passed && fingerprint != null && layoutVerdicts.size() < MAXIMUM_LAYOUT_VERDICTS) {
+                layoutVerdicts.putIfAbsent(fingerprint, ElementVerdict.VALID);
+            }
+            return passed;
+        } finally {
+            span.close();
+        }
+    }
+
+
+    private boolean passesInAdaptiveOrder(
+            @Nonnull final Object annotatedObject,
+            @Nonnull final TypeHierarchy typeHierarchy,
+            @Nonnull final ResolvedAnnotations resolved) {
+        if (validationMode == DEFAULT) {
+            if (annotationDefinitions.isEmpty()) {
+                return false;
+            }
+        } else if (!hasDefinedTypesOnly(resolved, null)) {
+            // comparing the Annotation types is cheaper than any attribute check
+            return false;
+        }
+
+        AdaptiveOrder<AnnotationDefinition> order = definitionOrder;
+        if (order == null) {
+            order = new AdaptiveOrder<>(annotationDefinitions);
+            definitionOrder = order;
+        }
+        return order.allPass(annotationDefinition -> checkDefinition(annotatedObject, typeHierarchy,
+                annotationDefinition, resolved, new Violations(annotatedObject, validationMode), true));
+    }
+
+
+    @Nonnull
+    private ResolvedAnnotations resolve(
+            @Nonnull final Object annotatedObject,
+            @Nonnull final TypeHierarchy typeHierarchy) {
+        final Span span = ValidationEvents.phase(HIERARCHY_RESOLUTION, annotatedObject, null, validationMode);
+        try {
+            if (validationMode == DEFAULT) {
+                // only defined annotations matter, so the hierarchy is searched just until all of them are found
+                return new ResolvedAnnotations(
+                        typeHierarchy.findAnnotationsFor(annotatedObject, getDefinedAnnotationTypes(), traversal),
+                        new Annotation[]{});
+            }
+            return new ResolvedAnnotations(Collections.emptyMap(),
+                    typeHierarchy.getAllAnnotationsFor(annotatedObject, traversal));
+        } finally {
+            span.close();
+        }
+    }
+
+
+    /**
+     * Identifies the rules by mode, traversal, ignored parameters, the descriptions of all definitions and the
+     * version given with the warm cache, stable across JVMs
+     *
+     * @return the key, empty if a definition is not described completely and no version was given
+     */
+    @Nonnull
+    private OptionalLong getRulesKey() {
+        final OptionalLong currentKey = rulesKey;
+        if (currentKey != null) {
+            return currentKey;
+        }
+
+        final String version = rulesVersion;
+        final LayoutFingerprint key = new LayoutFingerprint()
+                .add(validationMode.name())
+                .add(traversal.name())
+                .add(new TreeSet<>(paramBlacklist).toString())
+                .add(version == null ? "" : version);
+        boolean describedCompletely = true;
+        for (final AnnotationDefinition annotationDefinition : annotationDefinitions) {
+            key.add(annotationDefinition.toString());
+            describedCompletely &= annotationDefinition.isDescribedCompletely();
+        }
+        final OptionalLong computedKey = describedCompletely || version != null
+                ? OptionalLong.of(key.getValue())
+                : OptionalLong.empty();
+        rulesKey = computedKey;
+        return computedKey;
+    }
+
+
+    /**
+     * The verdict depends only on the resolved Annotations: the defined ones in definition order for default
+     * validation, all of them in hierarchy order for strict validation, and where inherited ones are declared
+     */
+    private long fingerprintOf(
+            @Nonnull final Object annotatedObject,
+            @Nonnull final TypeHierarchy typeHierarchy,
+            @Nonnull final ResolvedAnnotations resolved) {
+        final LayoutFingerprint fingerprint = new LayoutFingerprint();
+        if (validationMode == DEFAULT) {
+            for (final AnnotationDefinition annotationDefinition : annotationDefinitions) {
+                final Annotation annotation = resolved.definedAnnotations.get(annotationDefinition.getAnnotation());
+                if (annotation == null) {
+                    fingerprint.addMissing(annotationDefinition.getAnnotation());
+                } else {
+                    fingerprint.add(annotation).addDeclaringElement(
+                            declaringElementOf(annotatedObject, typeHierarchy, annotation));
+                }
+            }
+        } else {
+            for (final Annotation annotation : resolved.allAnnotations) {
+                fingerprint.add(annotation).addDeclaringElement(
+                        declaringElementOf(annotatedObject, typeHierarchy, annotation));
+            }
+        }
+        return fingerprint.getValue();
+    }
+
+
+    @Nonnull
+    private ElementVerdict validateAnnotations(
+            @Nonnull final Object annotatedObject,
+            @Nonnull final TypeHierarchy typeHierarchy,
+            @Nonnull final ResolvedAnnotations resolved) {
+        final Violations violations = new Violations(annotatedObject, validationMode);
+
+        for (final AnnotationDefinition annotationDefinition : annotationDefinitions) {
+            checkDefinition(annotatedObject, typeHierarchy, annotationDefinition, resolved, violations, false);
+        }
+
+        if (validationMode == DEFAULT && annotationDefinitions.isEmpty()) {
+            violations.add(null, "Please add at least one Annotation to assert or enable strict validation.");
+        }
+
+        if (validationMode != DEFAULT) {
+            hasDefinedTypesOnly(resolved, violations);
+        }
+
+        return ElementVerdict.of(violations);
+    }
+
+
+    /**
+     * Looks up the Annotation of one definition and checks it, shared by full validation and fail fast checking
+     * <br> - a missing Annotation fails
+     * <br> - an Annotation inherited from a supertype gets the verdict shared by all subtypes
+     * <br> - all other Annotations are checked by the compiled checks of the definition
+     *
+     * @param violations receives the messages of failed checks, must be empty when failing fast
+     * @param failFast stops at the first failed check
+     * @return true if the Annotation is present and passes all checks
+     */
+    private boolean checkDefinition(
+            @Nonnull final Object annotatedObject,
+            @Nonnull final TypeHierarchy typeHierarchy,
+            @Nonnull final AnnotationDefinition annotationDefinition,
+            @Nonnull final ResolvedAnnotations resolved,
+            @Nonnull final Violations violations,
+            final boolean failFast) {
+        final Annotation annotation = validationMode == DEFAULT
+                ? resolved.definedAnnotations.get(annotationDefinition.getAnnotation())
+                : findAnnotationFor(resolved.allAnnotations, annotationDefinition.getAnnotation()).orElse(null);
+        if (annotation == null) {
+            violations.add(annotationDefinition.getAnnotation(), "Expected Annotation %s not found",
+                    annotationDefinition.getAnnotation().getName());
+            return false;
+        }
+
+        final String declaringElement = declaringElementOf(annotatedObject, typeHierarchy, annotation);
+        if (declaringElement != null) {
+            // the verdict of an inherited Annotation is the same for all subtypes
+            final List<String> messages = getInheritedVerdict(annotatedObject, annotationDefinition, annotation);
+            for (final String message : messages) {
+                violations.addInherited(annotation.annotationType(), message, declaringElement);
+            }
+            return messages.isEmpty();
+        }
+
+        final CompiledAnnotationCheck compiledCheck =
+                getCompiledCheck(annotatedObject, annotationDefinition, annotation.annotationType());
+        final Span span = ValidationEvents.phase(ATTRIBUTE_READ, annotatedObject,
+                annotation.annotationType(), validationMode);
+        try {
+            if (failFast) {
+                return compiledCheck.passes(violations, annotation);
+            }
+            // check all methods defined in annotation definition and all undefined methods
+            final int previousMessages = violations.getMessages().size();
+            compiledCheck.validate(violations, annotation);
+            return violations.getMessages().size() == previousMessages;
+        } finally {
+            span.close();
+        }
+    }
+
+
+    /**
+     * Strict validation expects exactly the defined Annotation types in definition order
+     *
+     * @param violations receives the message if other types are found, null if only the verdict is needed
+     * @return true if only the defined types are found
+     */
+    private boolean hasDefinedTypesOnly(
+            @Nonnull final ResolvedAnnotations resolved,
+            @Nullable final Violations violations) {
+        final List<String> definedTypes = new ArrayList<>();
+        for (final AnnotationDefinition annotationDefinition : annotationDefinitions) {
+            if (findAnnotationFor(resolved.allAnnotations, annotationDefinition.getAnnotation()).isPresent()) {
+                definedTypes.add(annotationDefinition.getAnnotation().getName());
+            }
+        }
+        final List<String> allTypes = new ArrayList<>();
+        for (final Annotation annotation : resolved.allAnnotations) {
+            allTypes.add(annotation.annotationType().getName());
+        }
+
+        if (definedTypes.equals(allTypes)) {
+            return true;
+        }
+        if (violations != null) {
+            violations.add(null, "Expected exactly Annotations %s in this order but found %s", definedTypes,
+                    allTypes);
+        }
+        return false;
+    }
+
+
+    /**
+     * @return the signature of the supertype or overridden Method declaring the given Annotation, null if the
+     * element declares it itself
+     */
+    @Nullable
+    private static String declaringElementOf(
+            @Nonnull final Object annotatedObject,
+            @Nonnull final TypeHierarchy typeHierarchy,
+            @Nonnull final Annotation annotation) {
+        final Object declaringElement = typeHierarchy.getDeclaringElement(annotatedObject, annotation);
+        return declaringElement == annotatedObject ? null : AnnotationLayout.signatureOf(declaringElement);
+    }
+
+
+    /**
+     * Checks an inherited Annotation only once per definition, its messages do not depend on the inheriting element
+     */
+    @Nonnull
+    private List<String> getInheritedVerdict(
+            @Nonnull final Object annotatedObject,
+            @Nonnull final AnnotationDefinition annotationDefinition,
+            @Nonnull final Annotation annotation) {
+        final WeakIdentityCache<Annotation, List<String>> verdicts =
+                inheritedVerdicts.computeIfAbsent(annotationDefinition, definition -> new WeakIdentityCache<>());
+        final List<String> rememberedMessages = verdicts.get(annotation);
+        if (rememberedMessages != null) {
+            return rememberedMessages;
+        }
+
+        final Violations violations = new Violations(annotatedObject, validationMode);
+        final CompiledAnnotationCheck compiledCheck =
+                getCompiledCheck(annotatedObject, annotationDefinition, annotation.annotationType());
+        final Span span = ValidationEvents.phase(ATTRIBUTE_READ, annotatedObject,
+                annotation.annotationType(), validationMode);
+        try {
+            compiledCheck.validate(violations, annotation);
+        } finally {
+            span.close();
+        }
+        final List<String> messages = Collections.unmodifiableList(violations.getMessages());
+        verdicts.put(annotation, messages);
+        return messages;
+    }
+
+
+    /**
+     * Resolving Methods and aliases happens only once per definition and Annotation type
+     * <br> Types of other class loaders are not referenced by this validation, so their loaders may be released
+     */
+    @Nonnull
+    private CompiledAnnotationCheck getCompiledCheck(
+            @Nonnull final Object annotatedObject,
+            @Nonnull final AnnotationDefinition annotationDefinition,
+            @Nonnull final Class<? extends Annotation> annotationType) {
+        if (annotationType != annotationDefinition.getAnnotation()) {
+            final WeakIdentityCache<Class<? extends Annotation>, Reference<CompiledAnnotationCheck>> checksByType =
+                    foreignCompiledChecks.computeIfAbsent(annotationDefinition, definition -> new WeakIdentityCache<>());
+            final Reference<CompiledAnnotationCheck> reference = checksByType.get(annotationType);
+            final CompiledAnnotationCheck compiledCheck = reference == null ? null : reference.get();
+            if (compiledCheck != null) {
+                return compiledCheck;
+            }
+
+            final Span span = ValidationEvents.phase(ALIAS_RESOLUTION, annotatedObject, annotationType, validationMode);
+            try {
+                final CompiledAnnotationCheck createdCheck = CompiledAnnotationCheck.compile(annotationDefinition,
+                        annotationType, paramBlacklist, validationMode);
+                checksByType.put(annotationType, new SoftReference<>(createdCheck));
+                return createdCheck;
+            } finally {
+                span.close();
+            }
+        }
+
+        final Map<Class<? extends Annotation>, CompiledAnnotationCheck> checksByType =
+                compiledChecks.computeIfAbsent(annotationDefinition, definition -> new ConcurrentHashMap<>());
+        final CompiledAnnotationCheck compiledCheck = checksByType.get(annotationType);
+        if (compiledCheck != null) {
+            return compiledCheck;
+        }
+
+        final Span span = ValidationEvents.phase(ALIAS_RESOLUTION, annotatedObject, annotationType, validationMode);
+        try {
+            final CompiledAnnotationCheck createdCheck =
+                    CompiledAnnotationCheck.compile(annotationDefinition, annotationType, paramBlacklist,
+                            validationMode);
+            final CompiledAnnotationCheck existingCheck = checksByType.putIfAbsent(annotationType, createdCheck);
+            return existingCheck == null ? createdCheck : existingCheck;
+        } finally {
+            span.close();
+        }
+    }
+
+
+    @Nonnull
+    private Set<Class<? extends Annotation>> getDefinedAnnotationTypes() {
+        final Set<Class<? extends Annotation>> definedAnnotationTypes = new LinkedHashSet<>();
+        for (final AnnotationDefinition annotationDefinition : annotationDefinitions) {
+            definedAnnotationTypes.add(annotationDefinition.getAnnotation());
+        }
+        return definedAnnotationTypes;
+    }
+
+
+    /**
+     * Parameters do not know their Method on their own, so it is added to the description
+     */
+    @Nonnull
+    static String describe(
+            @Nonnull final Object annotatedObject) {
+        if (annotatedObject instanceof Parameter) {
+            final Parameter parameter = (Parameter) annotatedObject;
+            return format("%s parameter %s", parameter.getDeclaringExecutable(), parameter);
+        }
+        return annotatedObject.toString();
+    }
+
+
+    /**
+     * Calls dependent on the type of the given Object:
+     */
+    @Nonnull
+    private Optional<Annotation> findAnnotationFor(
+            @Nonnull final Annotation[] allAnnotations,
+            @Nonnull final Class<? extends Annotation> annotation) {
+        return Arrays.stream(allAnnotations)
+                .filter(annotationFound -> annotationFound.annotationType().getName().equals(annotation.getName()))
+                .findAny();
+    }
+
+
+    /**
+     * The Annotations of an element as needed by the validation mode
+     */
+    private static final class ResolvedAnnotations {
+
+        private final Map<Class<? extends Annotation>, Annotation> definedAnnotations;
+        private final Annotation[] allAnnotations;
+
+
+        private ResolvedAnnotations(
+                @Nonnull final Map<Class<? extends Annotation>, Annotation> definedAnnotations,
+                @Nonnull final Annotation[] allAnnotations) {
+            this.definedAnnotations = definedAnnotations;
+            this.allAnnotations = allAnnotations;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Annotation Validation
+ */
+public class AnnotationValidator {
+
+	private AnnotationValidator() {
+		// only via factory method
+	}
+
+	/**
+	 * Returns an AnnotationValidation
+	 * <br> - uses SoftAssertions
+	 * <br> - validates all given parameters for an Annotation and fails if there are differences
+	 * <br> - respects parameter aliases
+	 *
+	 * @return ClassAnnotationValidator to validate for a specific Class
+	 */
+	@Nonnull
+	public static AnnotationValidation validate() {
+		final HashSet<String> paramBlacklist = new HashSet<>();
+		paramBlacklist.add("equals");
+		paramBlacklist.add("toString");
+		paramBlacklist.add("hashCode");
+		paramBlacklist.add("annotationType");
+
+		return new AnnotationValidation(paramBlacklist);
+	}
+
+	/**
+	 * Returns ElementConstraints
+	 * <br> - checks constraints spanning several elements, e.g. unique values or references between Annotations
+	 * <br> - visits each element only once
+	 *
+	 * @return ElementConstraints to be configured and checked
+	 */
+	@Nonnull
+	public static ElementConstraints constraints() {
+		return new ElementConstraints();
+	}
+
+	/**
+	 * Returns a LayoutDiff
+	 * <br> - compares the effective Annotations of all Classes and members of two builds, e.g. two jar files
+	 * <br> - needs no rules, the baseline is the expected layout
+	 *
+	 * @param baseline directory or jar file of the expected build
+	 * @param current directory or jar file of the build to compare
+	 * @return LayoutDiff to be configured and run
+	 */
+	@Nonnull
+	public static LayoutDiff diff(@Nonnull final Path baseline, @Nonnull final Path current) {
+		return new LayoutDiff(baseline, current);
+	}
+
+	/**
+	 * Returns a ForkedValidation
+	 * <br> - validates the Classes of given class path entries in worker JVMs
+	 * <br> - creates the rules in each worker with the given Supplier
+	 *
+	 * @param rules Supplier of the AnnotationValidation to apply, needs a public no-arg constructor
+	 * @return ForkedValidation to be configured and run
+	 */
+	@Nonnull
+	public static ForkedValidation validateForked(@Nonnull final Class<? extends Supplier<AnnotationValidation>> rules) {
+		return new ForkedValidation(rules);
+	}
+}
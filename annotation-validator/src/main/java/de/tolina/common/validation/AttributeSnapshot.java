@@ -0,0 +1,182 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.String.format;
+
+
+/**
+ * The attribute values of one Annotation instance, each read only once and shared by all validations
+ * <br> - Annotation proxies clone array values on every call, the snapshot keeps the first copy
+ * <br> - snapshots are remembered per Annotation instance without keeping the instance from being garbage collected
+ * <br> - values are shared read-only, arrays must not be modified
+ * <br> - only Strings, primitives and their arrays are kept, Class, enum and Annotation values lead back to their
+ * class loader and through it to the Annotation instance itself, so they are read again each time
+ * <br> - failed reads are not remembered, so they fail again the next time
+ */
+final class AttributeSnapshot {
+
+    private static final String ACCESS_OR_INVOCATION_EXCEPTION_MESSAGE = "Could not access/invoke method '%s' of %s.";
+    private static final int STRIPES = 16;
+
+    private static final List<WeakIdentityCache<Annotation, AttributeSnapshot>> SNAPSHOTS = new ArrayList<>(STRIPES);
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            SNAPSHOTS.add(new WeakIdentityCache<>());
+        }
+    }
+
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+    private volatile SortedMap<String, String> canonicalAttributes;
+    private volatile Long fingerprint;
+
+
+    private AttributeSnapshot() {
+        // only via of
+    }
+
+
+    /**
+     * @param annotation the Annotation instance
+     * @return the snapshot shared by all readers of this instance
+     */
+    @Nonnull
+    static AttributeSnapshot of(
+            @Nonnull final Annotation annotation) {
+        // striped, so parallel validations rarely wait for each other
+        final WeakIdentityCache<Annotation, AttributeSnapshot> snapshots =
+                SNAPSHOTS.get((System.identityHashCode(annotation) & Integer.MAX_VALUE) % STRIPES);
+        synchronized (snapshots) {
+            AttributeSnapshot snapshot = snapshots.get(annotation);
+            if (snapshot == null) {
+                snapshot = new AttributeSnapshot();
+                snapshots.put(annotation, snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+
+    /**
+     * Reads an attribute value, only the first read for each name invokes the given reader
+     *
+     * @param annotation the Annotation instance of this snapshot
+     * @param name name of the attribute Method
+     * @param reader reads the value if it is not known yet
+     * @return the value, not to be modified
+     * @throws ReflectiveOperationException if the reader failed
+     */
+    @Nonnull
+    Object read(
+            @Nonnull final Annotation annotation,
+            @Nonnull final String name,
+            @Nonnull final AttributeReader reader) throws ReflectiveOperationException {
+        final Object knownValue = values.get(name);
+        if (knownValue != null) {
+            return knownValue;
+        }
+
+        final Object value = reader.read(annotation);
+        if (!isLoaderNeutral(value)) {
+            return value;
+        }
+        final Object concurrentlyReadValue = values.putIfAbsent(name, value);
+        return concurrentlyReadValue == null ? value : concurrentlyReadValue;
+    }
+
+
+    /**
+     * @return true if the value refers to no Class other than those of the bootstrap class loader
+     */
+    private static boolean isLoaderNeutral(
+            @Nonnull final Object value) {
+        final Class<?> type = value.getClass().isArray() ? value.getClass().getComponentType() : value.getClass();
+        return type.isPrimitive() || type == String.class || type == Boolean.class || type == Character.class
+                || Number.class.isAssignableFrom(type) && type.getClassLoader() == null;
+    }
+
+
+    /**
+     * @param annotation the Annotation instance of this snapshot
+     * @return the names of all attributes mapped to their canonical values
+     * @throws IllegalStateException if an attribute could not be read
+     */
+    @Nonnull
+    SortedMap<String, String> getCanonicalAttributes(
+            @Nonnull final Annotation annotation) {
+        final SortedMap<String, String> knownAttributes = canonicalAttributes;
+        if (knownAttributes != null) {
+            return knownAttributes;
+        }
+
+        final SortedMap<String, String> attributes = new TreeMap<>();
+        for (final Method method : annotation.annotationType().getDeclaredMethods()) {
+            if (method.getParameterCount() != 0 || method.isSynthetic()) {
+                continue;
+            }
+            try {
+                attributes.put(method.getName(),
+                        AnnotationLayout.canonicalValueOf(read(annotation, method.getName(), method::invoke)));
+            } catch (final ReflectiveOperationException e) {
+                throw new IllegalStateException(format(ACCESS_OR_INVOCATION_EXCEPTION_MESSAGE, method.getName(),
+                        annotation.annotationType().getName()), e);
+            }
+        }
+        canonicalAttributes = Collections.unmodifiableSortedMap(attributes);
+        return canonicalAttributes;
+    }
+
+
+    /**
+     * @param annotation the Annotation instance of this snapshot
+     * @return the hash of the type and all canonical attribute values, computed only once
+     * @throws IllegalStateException if an attribute could not be read
+     */
+    long getFingerprint(
+            @Nonnull final Annotation annotation) {
+        final Long knownFingerprint = fingerprint;
+        if (knownFingerprint != null) {
+            return knownFingerprint;
+        }
+
+        final long value = LayoutFingerprint.ofAnnotation(annotation.annotationType().getName(),
+                getCanonicalAttributes(annotation));
+        fingerprint = value;
+        return value;
+    }
+
+
+    /**
+     * Reads one attribute of an Annotation
+     */
+    interface AttributeReader {
+
+        Object read(@Nonnull Annotation annotation) throws ReflectiveOperationException;
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Validates the Classes of class path entries in batches, each loaded by its own class loader
+ * <br> - a batch is validated and its class loader closed and released before the next batch is loaded, so heap
+ * and metaspace stay bounded by the batch size instead of growing with the class path
+ * <br> - the type hierarchy is resolved per batch, verdicts shared between batches do not refer to any Class
+ * <br> - the Classes are loaded without being initialized, anonymous and synthetic Classes are skipped
+ * <br> - all results are collected into one {@link ValidationReport}
+ */
+public final class BatchValidation {
+
+    private static final int DEFAULT_BATCH_SIZE = 1_000;
+
+    private final AnnotationValidation validation;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private boolean deep;
+
+
+    BatchValidation(
+            @Nonnull final AnnotationValidation validation) {
+        this.validation = validation;
+    }
+
+
+    /**
+     * @param maximumClasses number of Classes validated per class loader, defaults to 1000
+     * @return the BatchValidation
+     */
+    @Nonnull
+    public BatchValidation batchSize(
+            final int maximumClasses) {
+        batchSize = maximumClasses;
+        return this;
+    }
+
+
+    /**
+     * Validates all declared members of the Classes as well, like {@link AnnotationValidation#forClassDeep(Class)}
+     *
+     * @return the BatchValidation
+     */
+    @Nonnull
+    public BatchValidation deep() {
+        deep = true;
+        return this;
+    }
+
+
+    /**
+     * Validates all Classes of the given class path entries
+     *
+     * @param dependencies parent of the batch class loaders, it has to load the dependencies of the entries but
+     * not the entries themselves, otherwise their Classes are not released
+     * @param classPathEntries directories or jar files whose Classes are to be validated
+     * @return the results of all Classes
+     * @throws IOException if a class path entry could not be read
+     */
+    @Nonnull
+    public ValidationReport run(
+            @Nonnull final ClassLoader dependencies,
+            @Nonnull final Path... classPathEntries) throws IOException {
+        final List<String> classNames = new ArrayList<>();
+        final URL[] urls = new URL[classPathEntries.length];
+        for (int i = 0; i < classPathEntries.length; i++) {
+            classNames.addAll(ClassPathScanner.getClassNames(classPathEntries[i]));
+            urls[i] = classPathEntries[i].toUri().toURL();
+        }
+
+        final int maximumClasses = Math.max(1, batchSize);
+        final List<ValidationReport> reports = new ArrayList<>();
+        for (int start = 0; start < classNames.size(); start += maximumClasses) {
+            final List<String> batch = classNames.subList(start, Math.min(classNames.size(), start + maximumClasses));
+            reports.add(validateBatch(urls, dependencies, batch));
+        }
+        return ValidationReport.merge(reports);
+    }
+
+
+    @Nonnull
+    private ValidationReport validateBatch(
+            @Nonnull final URL[] urls,
+            @Nonnull final ClassLoader dependencies,
+            @Nonnull final List<String> classNames) throws IOException {
+        try (final URLClassLoader classLoader = new URLClassLoader(urls, dependencies)) {
+            final TypeHierarchy typeHierarchy = new TypeHierarchy();
+            final List<ValidationResult> results = new ArrayList<>();
+            for (final String className : classNames) {
+                results.addAll(ParallelValidation.validateClass(validation, typeHierarchy, classLoader, className,
+                        deep));
+            }
+            return ParallelValidation.reportOf(results);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import static java.lang.String.format;
+
+
+/**
+ * Snapshot of the counters of a cache used by {@link AnnotationValidation}
+ */
+public final class CacheStatistics {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+
+
+    CacheStatistics(
+            final long hitCount,
+            final long missCount,
+            final long evictionCount,
+            final int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+
+    /**
+     * @return number of lookups answered from the cache
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+
+    /**
+     * @return number of lookups that had to be computed
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+
+    /**
+     * @return number of entries removed to stay within the size bound
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+
+    /**
+     * @return number of entries currently cached
+     */
+    public int getSize() {
+        return size;
+    }
+
+
+    @Override
+    public String toString() {
+        return format("%d hits, %d misses, %d evictions, %d entries", hitCount, missCount, evictionCount, size);
+    }
+}
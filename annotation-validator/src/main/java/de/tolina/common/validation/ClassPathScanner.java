@@ -0,0 +1,98 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+
+/**
+ * Lists the Classes of class path entries without loading them
+ */
+final class ClassPathScanner {
+
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+
+    private ClassPathScanner() {
+        // only static methods
+    }
+
+
+    /**
+     * @param classPathEntry a directory like <code>target/classes</code> or a jar file
+     * @return the sorted names of all Classes in the given entry
+     * @throws IOException if the entry could not be read
+     */
+    @Nonnull
+    static List<String> getClassNames(
+            @Nonnull final Path classPathEntry) throws IOException {
+        final List<String> classNames = new ArrayList<>();
+
+        if (Files.isDirectory(classPathEntry)) {
+            try (final Stream<Path> files = Files.walk(classPathEntry)) {
+                files.map(file -> classPathEntry.relativize(file).toString().replace(File.separatorChar, '/'))
+                        .map(ClassPathScanner::toClassName)
+                        .forEach(className -> addIfPresent(classNames, className));
+            }
+        } else {
+            try (final JarFile jarFile = new JarFile(classPathEntry.toFile())) {
+                jarFile.stream()
+                        .map(JarEntry::getName)
+                        .filter(name -> !name.startsWith("META-INF/"))
+                        .map(ClassPathScanner::toClassName)
+                        .forEach(className -> addIfPresent(classNames, className));
+            }
+        }
+
+        Collections.sort(classNames);
+        return classNames;
+    }
+
+
+    private static void addIfPresent(
+            @Nonnull final List<String> classNames,
+            @Nullable final String className) {
+        if (className != null) {
+            classNames.add(className);
+        }
+    }
+
+
+    /**
+     * @return the Class name for the given resource name, null if the resource is no Class
+     */
+    @Nullable
+    private static String toClassName(
+            @Nonnull final String resourceName) {
+        if (!resourceName.endsWith(CLASS_FILE_SUFFIX)
+                || resourceName.endsWith("module-info.class")
+                || resourceName.endsWith("package-info.class")) {
+            return null;
+        }
+        return resourceName.substring(0, resourceName.length() - CLASS_FILE_SUFFIX.length()).replace('/', '.');
+    }
+}
@@ -0,0 +1,413 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+import static de.tolina.common.validation.AttributeSnapshot.AttributeReader;
+import static de.tolina.common.validation.ValidationMode.EXACTLY;
+import static de.tolina.common.validation.Violations.render;
+
+
+/**
+ * The checks of one {@link AnnotationDefinition} prepared for one Annotation type
+ * <br> - Methods, aliases and the Methods left to their defaults are resolved once, not per validated element
+ * <br> - attributes are read through method handles typed to the Annotation interface, once per Annotation instance
+ * into its {@link AttributeSnapshot}
+ * <br> - validating an Annotation only runs the prepared checks one after another, in declared order for reports
+ * and in {@link AdaptiveOrder} for fail fast runs
+ */
+final class CompiledAnnotationCheck {
+
+    private static final String ACCESS_OR_INVOCATION_EXCEPTION_MESSAGE =
+            "Could not access/invoke aliased method for '%s'.";
+    private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Annotation.class);
+
+    private final Class<? extends Annotation> annotationType;
+    private final List<ParameterCheck> parameterChecks;
+    private final List<UndefinedMethodCheck> undefinedMethodChecks;
+    // all checks for fail fast runs, ordered by their statistics
+    private final AdaptiveOrder<AttributeCheck> checkOrder;
+
+
+    private CompiledAnnotationCheck(
+            @Nonnull final Class<? extends Annotation> annotationType,
+            @Nonnull final List<ParameterCheck> parameterChecks,
+            @Nonnull final List<UndefinedMethodCheck> undefinedMethodChecks) {
+        this.annotationType = annotationType;
+        this.parameterChecks = parameterChecks;
+        this.undefinedMethodChecks = undefinedMethodChecks;
+
+        final List<AttributeCheck> allChecks = new ArrayList<>(parameterChecks);
+        allChecks.addAll(undefinedMethodChecks);
+        checkOrder = new AdaptiveOrder<>(allChecks);
+    }
+
+
+    /**
+     * Prepares the checks of the given definition
+     *
+     * @param annotationDefinition the defined parameters
+     * @param annotationType the type of the Annotations to be checked, may differ from the defined one in its
+     * class loader
+     * @param paramBlacklist Methods that are never checked
+     * @param validationMode decides how Methods left to their defaults are checked
+     * @return the prepared checks
+     */
+    @Nonnull
+    static CompiledAnnotationCheck compile(
+            @Nonnull final AnnotationDefinition annotationDefinition,
+            @Nonnull final Class<? extends Annotation> annotationType,
+            @Nonnull final Set<String> paramBlacklist,
+            @Nonnull final ValidationMode validationMode) {
+        final List<ParameterCheck> parameterChecks = new ArrayList<>();
+        final Set<String> validatedMethods = new HashSet<>();
+
+        for (final AnnotationDefinition.AnnotationMethodDefinition annotationMethodDefinition : annotationDefinition
+                .getAnnotationMethodDefinitions()) {
+            final String methodName = annotationMethodDefinition.getMethod();
+            final ValueMatcher expectedValue = annotationMethodDefinition.getMatcher();
+
+            final Method actualMethod;
+            try {
+                actualMethod = annotationType.getMethod(methodName);
+            } catch (final NoSuchMethodException e) {
+                parameterChecks.add(ParameterCheck.failing("Method %s not found.", methodName));
+                continue;
+            }
+
+            // check if this annotation's actualMethod is an alias
+            Method aliasMethod = null;
+            String setupErrorFormat = null;
+            final Optional<Annotation> aliasForAnnotation = getAliasNameIfPresent(actualMethod);
+            if (aliasForAnnotation.isPresent()) {
+                try {
+                    aliasMethod = getAliasMethod(annotationType, aliasForAnnotation.get(), methodName);
+                } catch (final NoSuchMethodException e) {
+                    parameterChecks.add(ParameterCheck.failing("Referenced alias method %s not found.",
+                            aliasForAnnotation.get()));
+                    continue;
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    setupErrorFormat = ACCESS_OR_INVOCATION_EXCEPTION_MESSAGE;
+                }
+            }
+
+            parameterChecks.add(new ParameterCheck(setupErrorFormat, actualMethod.getName(), actualMethod.getName(),
+                    readerFor(actualMethod),
+                    aliasMethod == null ? null : aliasMethod.getName(),
+                    aliasMethod == null ? null : readerFor(aliasMethod), expectedValue));
+
+            validatedMethods.add(actualMethod.getName());
+            if (aliasMethod != null) {
+                validatedMethods.add(aliasMethod.getName());
+            }
+        }
+
+        // all methods in current annotation which are not defined in annotation definition or blacklist are checked
+        final List<UndefinedMethodCheck> undefinedMethodChecks = new ArrayList<>();
+        for (final Method declaredMethod : annotationType.getDeclaredMethods()) {
+            if (paramBlacklist.contains(declaredMethod.getName())
+                    || validatedMethods.contains(declaredMethod.getName())
+                    || Modifier.isStatic(declaredMethod.getModifiers())
+                    || declaredMethod.getParameterCount() != 0) {
+                continue;
+            }
+            undefinedMethodChecks.add(new UndefinedMethodCheck(declaredMethod.getName(), readerFor(declaredMethod),
+                    declaredMethod.getDefaultValue(), validationMode));
+        }
+
+        return new CompiledAnnotationCheck(annotationType, parameterChecks, undefinedMethodChecks);
+    }
+
+
+    /**
+     * Runs all prepared checks against the given Annotation
+     *
+     * @param violations collects the failed checks
+     * @param annotation an Annotation of the prepared type
+     */
+    void validate(
+            @Nonnull final Violations violations,
+            @Nonnull final Annotation annotation) {
+        final AttributeSnapshot snapshot = AttributeSnapshot.of(annotation);
+        for (final ParameterCheck parameterCheck : parameterChecks) {
+            parameterCheck.validate(violations, annotationType, annotation, snapshot);
+        }
+        for (final UndefinedMethodCheck undefinedMethodCheck : undefinedMethodChecks) {
+            undefinedMethodCheck.validate(violations, annotationType, annotation, snapshot);
+        }
+    }
+
+
+    /**
+     * Runs the prepared checks against the given Annotation until one fails, cheap and selective checks first
+     *
+     * @param violations collects the message of the failed check, has to be empty
+     * @param annotation an Annotation of the prepared type
+     * @return true if all checks pass
+     */
+    boolean passes(
+            @Nonnull final Violations violations,
+            @Nonnull final Annotation annotation) {
+        final AttributeSnapshot snapshot = AttributeSnapshot.of(annotation);
+        return checkOrder.allPass(check -> {
+            check.validate(violations, annotationType, annotation, snapshot);
+            return violations.getMessages().isEmpty();
+        });
+    }
+
+
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    private static Method getAliasMethod(
+            @Nonnull final Class<? extends Annotation> annotationType,
+            @Nonnull final Annotation aliasForAnnotation,
+            @Nonnull final String methodName)
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        final Method annotationMethod = aliasForAnnotation.annotationType().getDeclaredMethod("annotation");
+        final Class<? extends Annotation> annotationValue =
+                (Class<? extends Annotation>) annotationMethod.invoke(aliasForAnnotation);
+
+        String aliasMethodName;
+        if (!annotationValue.equals(annotationMethod.getDefaultValue())) {
+            aliasMethodName = aliasForAnnotation
+                    .annotationType()
+                    .getDeclaredMethod("attribute")
+                    .invoke(aliasForAnnotation)
+                    .toString();
+
+            if (StringUtils.isEmpty(aliasMethodName)) {
+                aliasMethodName = methodName;
+            }
+
+            return annotationValue.getDeclaredMethod(aliasMethodName);
+        } else {
+            aliasMethodName = aliasForAnnotation
+                    .annotationType()
+                    .getDeclaredMethod("value")
+                    .invoke(aliasForAnnotation)
+                    .toString();
+
+            return annotationType.getDeclaredMethod(aliasMethodName);
+        }
+    }
+
+
+    @Nonnull
+    private static Optional<Annotation> getAliasNameIfPresent(
+            @Nonnull final Method method) {
+        return Arrays.stream(method.getDeclaredAnnotations())
+                .filter(annotationFound -> annotationFound.annotationType().getName().endsWith("AliasFor"))
+                .findAny();
+    }
+
+
+    /**
+     * Prefers a method handle, which the JIT can inline like a direct interface call, and falls back to reflection
+     * if the Annotation interface is not accessible
+     */
+    @Nonnull
+    private static AttributeReader readerFor(
+            @Nonnull final Method method) {
+        final MethodHandle methodHandle;
+        try {
+            method.setAccessible(true);
+            methodHandle = MethodHandles.lookup().unreflect(method).asType(READER_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return method::invoke;
+        }
+
+        return annotation -> {
+            try {
+                return (Object) methodHandle.invokeExact(annotation);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        };
+    }
+
+
+    private static boolean isNullOrEmpty(
+            @Nullable final Object methodResult) {
+        if (Object[].class.isInstance(methodResult)) {
+            return ((Object[]) methodResult).length == 0;
+        }
+        if (methodResult instanceof String) {
+            return ((String) methodResult).isEmpty();
+        }
+        return methodResult == null;
+    }
+
+
+    /**
+     * A single prepared check of an attribute
+     */
+    private interface AttributeCheck {
+
+        void validate(
+                @Nonnull Violations violations,
+                @Nonnull Class<? extends Annotation> annotationType,
+                @Nonnull Annotation annotation,
+                @Nonnull AttributeSnapshot snapshot);
+    }
+
+
+    /**
+     * Compares a defined parameter, falling back to its alias
+     */
+    private static final class ParameterCheck implements AttributeCheck {
+
+        private final String setupErrorFormat;
+        private final Object setupErrorArgument;
+        private final String methodName;
+        private final AttributeReader reader;
+        private final String aliasMethodName;
+        private final AttributeReader aliasReader;
+        private final ValueMatcher expectedValue;
+
+
+        private ParameterCheck(
+                @Nullable final String setupErrorFormat,
+                @Nullable final Object setupErrorArgument,
+                @Nullable final String methodName,
+                @Nullable final AttributeReader reader,
+                @Nullable final String aliasMethodName,
+                @Nullable final AttributeReader aliasReader,
+                @Nullable final ValueMatcher expectedValue) {
+            this.setupErrorFormat = setupErrorFormat;
+            this.setupErrorArgument = setupErrorArgument;
+            this.methodName = methodName;
+            this.reader = reader;
+            this.aliasMethodName = aliasMethodName;
+            this.aliasReader = aliasReader;
+            this.expectedValue = expectedValue;
+        }
+
+
+        /**
+         * @return a check that always fails with the given message, as its Method could not be resolved
+         */
+        @Nonnull
+        static ParameterCheck failing(
+                @Nonnull final String messageFormat,
+                @Nonnull final Object argument) {
+            return new ParameterCheck(messageFormat, argument, null, null, null, null, null);
+        }
+
+
+        @Override
+        public void validate(
+                @Nonnull final Violations violations,
+                @Nonnull final Class<? extends Annotation> annotationType,
+                @Nonnull final Annotation annotation,
+                @Nonnull final AttributeSnapshot snapshot) {
+            if (setupErrorFormat != null) {
+                violations.add(annotationType, setupErrorFormat, setupErrorArgument);
+            }
+            if (reader == null) {
+                return;
+            }
+
+            // check that the actual method in annotation has defined return types
+            Object assertableResult = null;
+            try {
+                assertableResult = snapshot.read(annotation, methodName, reader);
+
+                if (aliasReader != null && !expectedValue.matches(assertableResult)) {
+                    try {
+                        final Object aliasMethodResult = snapshot.read(annotation, aliasMethodName, aliasReader);
+                        if (expectedValue.matches(aliasMethodResult)) {
+                            assertableResult = aliasMethodResult;
+                        }
+                    } catch (ReflectiveOperationException | IllegalArgumentException | ClassCastException e) {
+                        violations.add(annotationType, ACCESS_OR_INVOCATION_EXCEPTION_MESSAGE, aliasMethodName);
+                    }
+                }
+            } catch (final ReflectiveOperationException e) {
+                violations.add(annotationType, ACCESS_OR_INVOCATION_EXCEPTION_MESSAGE, methodName);
+            }
+
+            if (!expectedValue.matches(assertableResult)) {
+                violations.add(annotationType, "Expected %s for Method '%s' but found %s.", expectedValue.describe(),
+                        methodName, render(assertableResult));
+            }
+        }
+    }
+
+
+    /**
+     * Checks a Method that is not defined, it has to keep its default or, for exact validation, be empty
+     */
+    private static final class UndefinedMethodCheck implements AttributeCheck {
+
+        private final String methodName;
+        private final AttributeReader reader;
+        private final Object defaultValue;
+        private final ValidationMode validationMode;
+
+
+        private UndefinedMethodCheck(
+                @Nonnull final String methodName,
+                @Nonnull final AttributeReader reader,
+                @Nullable final Object defaultValue,
+                @Nonnull final ValidationMode validationMode) {
+            this.methodName = methodName;
+            this.reader = reader;
+            this.defaultValue = defaultValue;
+            this.validationMode = validationMode;
+        }
+
+
+        @Override
+        public void validate(
+                @Nonnull final Violations violations,
+                @Nonnull final Class<? extends Annotation> annotationType,
+                @Nonnull final Annotation annotation,
+                @Nonnull final AttributeSnapshot snapshot) {
+            try {
+                final Object methodResult = snapshot.read(annotation, methodName, reader);
+
+                if (validationMode != EXACTLY) {
+                    if (!Objects.deepEquals(methodResult, defaultValue)) {
+                        violations.add(annotationType,
+                                "Unexpected value for Method '%s' found. Expected default %s but found %s.",
+                                methodName, render(defaultValue), render(methodResult));
+                    }
+                } else if (!isNullOrEmpty(methodResult)) {
+                    violations.add(annotationType, Object[].class.isInstance(methodResult)
+                                    ? "Unexpected values for %s found: %s."
+                                    : "Unexpected value for Method '%s' found: %s.",
+                            methodName, render(methodResult));
+                }
+            } catch (final ReflectiveOperationException e) {
+                violations.add(annotationType, ACCESS_OR_INVOCATION_EXCEPTION_MESSAGE, methodName);
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+
+import static java.lang.String.format;
+
+
+/**
+ * Constraints spanning several elements, e.g. unique mappings or references between Annotations
+ * <br> - all elements are visited once, each constraint indexes the values it needs in hash maps on the way
+ * <br> - the hash maps are built per run, so runs may be concurrent and a failed run leaves nothing behind
+ * <br> - only Annotations declared on an element are considered, so inherited declarations are not counted twice
+ * <br> - array attributes contribute each of their values, several attributes each combination of their values
+ */
+public final class ElementConstraints {
+
+    private final List<Constraint> constraints = new ArrayList<>();
+
+
+    ElementConstraints() {
+        // only via factory method
+    }
+
+
+    /**
+     * No two elements may declare the given Annotation with the same values of the given attributes, e.g. the same
+     * path and request method of a handler mapping
+     *
+     * @param annotationType the Annotation type
+     * @param attributes names of the attributes that together have to be unique
+     * @return the ElementConstraints
+     */
+    @Nonnull
+    public ElementConstraints unique(
+            @Nonnull final Class<? extends Annotation> annotationType,
+            @Nonnull final String... attributes) {
+        constraints.add(new Unique(annotationType, attributes));
+        return this;
+    }
+
+
+    /**
+     * Every value of the referencing attribute has to be declared by the declaring attribute on some element
+     *
+     * @param referencingType the Annotation type that references values
+     * @param referencingAttribute the attribute with the referenced values
+     * @param declaringType the Annotation type that declares values
+     * @param declaringAttribute the attribute with the declared values
+     * @return the ElementConstraints
+     */
+    @Nonnull
+    public ElementConstraints references(
+            @Nonnull final Class<? extends Annotation> referencingType,
+            @Nonnull final String referencingAttribute,
+            @Nonnull final Class<? extends Annotation> declaringType,
+            @Nonnull final String declaringAttribute) {
+        constraints.add(new Reference(referencingType, referencingAttribute, declaringType, declaringAttribute));
+        return this;
+    }
+
+
+    /**
+     * Checks the constraints for the given Classes and all their declared members
+     *
+     * @param annotatedClasses the Classes to be checked together
+     * @return one failure for each element that violates a constraint
+     */
+    @Nonnull
+    public ValidationReport forClassesDeep(
+            @Nonnull final Iterable<Class<?>> annotatedClasses) {
+        final TypeHierarchy typeHierarchy = new TypeHierarchy();
+        final List<AnnotatedElement> annotatedElements = new ArrayList<>();
+        for (final Class<?> annotatedClass : annotatedClasses) {
+            for (final Object annotatedElement : typeHierarchy.getAnnotatedElements(annotatedClass)) {
+                annotatedElements.add((AnnotatedElement) annotatedElement);
+            }
+        }
+        return forElements(annotatedElements);
+    }
+
+
+    /**
+     * Checks the constraints for the given elements
+     *
+     * @param annotatedElements Classes, Methods, Fields, Constructors or Parameters to be checked together
+     * @return one failure for each element that violates a constraint
+     */
+    @Nonnull
+    public ValidationReport forElements(
+            @Nonnull final Iterable<? extends AnnotatedElement> annotatedElements) {
+        final Map<String, List<String>> errorsByElement = new LinkedHashMap<>();
+        final List<Index> indexes = new ArrayList<>();
+        for (final Constraint constraint : constraints) {
+            indexes.add(constraint.newIndex());
+        }
+        int validatedElements = 0;
+
+        for (final AnnotatedElement annotatedElement : annotatedElements) {
+            final String element = AnnotationValidation.describe(annotatedElement);
+            for (final Index index : indexes) {
+                index.add(annotatedElement, element, errorsByElement);
+            }
+            validatedElements++;
+        }
+        for (final Index index : indexes) {
+            index.finish(errorsByElement);
+        }
+
+        final List<ValidationResult> failures = new ArrayList<>();
+        errorsByElement.forEach((element, errors) -> failures.add(new ValidationResult(element, errors)));
+        return new ValidationReport(validatedElements, failures);
+    }
+
+
+    private static void addError(
+            @Nonnull final Map<String, List<String>> errorsByElement,
+            @Nonnull final String element,
+            @Nonnull final String error) {
+        errorsByElement.computeIfAbsent(element, key -> new ArrayList<>()).add(error);
+    }
+
+
+    /**
+     * @return the canonical values of the attribute, one for each array element
+     */
+    @Nonnull
+    private static List<String> valuesOf(
+            @Nonnull final Annotation annotation,
+            @Nonnull final String attribute) {
+        final Object value;
+        try {
+            value = annotation.annotationType().getMethod(attribute).invoke(annotation);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalArgumentException(format("Could not read attribute '%s' of %s.", attribute,
+                    annotation.annotationType().getName()), e);
+        }
+
+        if (!value.getClass().isArray() || Array.getLength(value) == 0) {
+            return Collections.singletonList(AnnotationLayout.canonicalValueOf(value));
+        }
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < Array.getLength(value); i++) {
+            values.add(AnnotationLayout.canonicalValueOf(Array.get(value, i)));
+        }
+        return values;
+    }
+
+
+    private interface Constraint {
+
+        /**
+         * @return empty hash maps of one run, filled by all its elements
+         */
+        @Nonnull
+        Index newIndex();
+    }
+
+
+    private interface Index {
+
+        void add(
+                @Nonnull AnnotatedElement annotatedElement,
+                @Nonnull String element,
+                @Nonnull Map<String, List<String>> errorsByElement);
+
+
+        default void finish(
+                @Nonnull final Map<String, List<String>> errorsByElement) {
+            // violations found while indexing only
+        }
+    }
+
+
+    private static final class Unique implements Constraint {
+
+        private final Class<? extends Annotation> annotationType;
+        private final String[] attributes;
+
+
+        private Unique(
+                @Nonnull final Class<? extends Annotation> annotationType,
+                @Nonnull final String[] attributes) {
+            this.annotationType = annotationType;
+            this.attributes = attributes.clone();
+        }
+
+
+        @Nonnull
+        @Override
+        public Index newIndex() {
+            final Map<List<String>, String> elementsByKey = new HashMap<>();
+            return (annotatedElement, element, errorsByElement) ->
+                    add(annotatedElement, element, elementsByKey, errorsByElement);
+        }
+
+
+        private void add(
+                @Nonnull final AnnotatedElement annotatedElement,
+                @Nonnull final String element,
+                @Nonnull final Map<List<String>, String> elementsByKey,
+                @Nonnull final Map<String, List<String>> errorsByElement) {
+            final Annotation annotation = TypeHierarchy.findAnnotation(annotatedElement, annotationType, true);
+            if (annotation == null) {
+                return;
+            }
+
+            // every combination of the attributes' values is a key of its own
+            List<List<String>> keys = Collections.singletonList(Collections.emptyList());
+            for (final String attribute : attributes) {
+                final List<List<String>> extendedKeys = new ArrayList<>();
+                for (final List<String> key : keys) {
+                    for (final String value : valuesOf(annotation, attribute)) {
+                        final List<String> extendedKey = new ArrayList<>(key);
+                        extendedKey.add(value);
+                        extendedKeys.add(extendedKey);
+                    }
+                }
+                keys = extendedKeys;
+            }
+
+            for (final List<String> key : new LinkedHashSet<>(keys)) {
+                final String firstElement = elementsByKey.putIfAbsent(key, element);
+                if (firstElement != null && !firstElement.equals(element)) {
+                    addError(errorsByElement, element, format("%s %s is not unique, already found on %s",
+                            annotationType.getName(), describe(key), firstElement));
+                }
+            }
+        }
+
+
+        @Nonnull
+        private String describe(
+                @Nonnull final List<String> key) {
+            final StringJoiner description = new StringJoiner(", ", "(", ")");
+            for (int i = 0; i < attributes.length; i++) {
+                description.add(attributes[i] + "=" + key.get(i));
+            }
+            return description.toString();
+        }
+    }
+
+
+    private static final class Reference implements Constraint {
+
+        private final Class<? extends Annotation> referencingType;
+        private final String referencingAttribute;
+        private final Class<? extends Annotation> declaringType;
+        private final String declaringAttribute;
+
+
+        private Reference(
+                @Nonnull final Class<? extends Annotation> referencingType,
+                @Nonnull final String referencingAttribute,
+                @Nonnull final Class<? extends Annotation> declaringType,
+                @Nonnull final String declaringAttribute) {
+            this.referencingType = referencingType;
+            this.referencingAttribute = referencingAttribute;
+            this.declaringType = declaringType;
+            this.declaringAttribute = declaringAttribute;
+        }
+
+
+        @Nonnull
+        @Override
+        public Index newIndex() {
+            final Set<String> declaredValues = new HashSet<>();
+            final Map<String, List<String>> elementsByReferencedValue = new LinkedHashMap<>();
+            return new Index() {
+                @Override
+                public void add(
+                        @Nonnull final AnnotatedElement annotatedElement,
+                        @Nonnull final String element,
+                        @Nonnull final Map<String, List<String>> errorsByElement) {
+                    Reference.this.add(annotatedElement, element, declaredValues, elementsByReferencedValue);
+                }
+
+
+                @Override
+                public void finish(
+                        @Nonnull final Map<String, List<String>> errorsByElement) {
+                    Reference.this.finish(declaredValues, elementsByReferencedValue, errorsByElement);
+                }
+            };
+        }
+
+
+        private void add(
+                @Nonnull final AnnotatedElement annotatedElement,
+                @Nonnull final String element,
+                @Nonnull final Set<String> declaredValues,
+                @Nonnull final Map<String, List<String>> elementsByReferencedValue) {
+            final Annotation declaring = TypeHierarchy.findAnnotation(annotatedElement, declaringType, true);
+            if (declaring != null) {
+                declaredValues.addAll(valuesOf(declaring, declaringAttribute));
+            }
+
+            final Annotation referencing = TypeHierarchy.findAnnotation(annotatedElement, referencingType, true);
+            if (referencing != null) {
+                for (final String value : valuesOf(referencing, referencingAttribute)) {
+                    elementsByReferencedValue.computeIfAbsent(value, key -> new ArrayList<>()).add(element);
+                }
+            }
+        }
+
+
+        private void finish(
+                @Nonnull final Set<String> declaredValues,
+                @Nonnull final Map<String, List<String>> elementsByReferencedValue,
+                @Nonnull final Map<String, List<String>> errorsByElement) {
+            elementsByReferencedValue.forEach((value, elements) -> {
+                if (declaredValues.contains(value)) {
+                    return;
+                }
+                for (final String element : elements) {
+                    addError(errorsByElement, element, format("%s.%s %s is not declared by any %s.%s",
+                            referencingType.getName(), referencingAttribute, value, declaringType.getName(),
+                            declaringAttribute));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * The errors of one element, shared by all elements with the same layout and kept by the warm cache
+ * <br> Errors about Annotations inherited from a supertype are marked, all its subtypes report them alike.
+ */
+final class ElementVerdict {
+
+    static final ElementVerdict VALID = new ElementVerdict(Collections.emptyList(), Collections.emptyList());
+
+    private final List<String> errors;
+    private final List<String> inheritedErrors;
+
+
+    /**
+     * @param errors the messages of all failed assertions
+     * @param inheritedErrors those of the errors which are about Annotations inherited from a supertype
+     */
+    ElementVerdict(
+            @Nonnull final List<String> errors,
+            @Nonnull final List<String> inheritedErrors) {
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+        this.inheritedErrors = Collections.unmodifiableList(new ArrayList<>(inheritedErrors));
+    }
+
+
+    @Nonnull
+    static ElementVerdict of(
+            @Nonnull final Violations violations) {
+        return new ElementVerdict(violations.getMessages(), violations.getInheritedMessages());
+    }
+
+
+    @Nonnull
+    List<String> getErrors() {
+        return errors;
+    }
+
+
+    @Nonnull
+    List<String> getInheritedErrors() {
+        return inheritedErrors;
+    }
+
+
+    boolean isValid() {
+        return errors.isEmpty();
+    }
+}
@@ -0,0 +1,330 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+
+
+/**
+ * Validates Classes which are too many to be loaded into one JVM
+ * <br> - the Classes of the given class path entries are split into one partition per worker
+ * <br> - each partition is validated in a worker JVM on localhost with its own class loader and bounded heap
+ * and metaspace
+ * <br> - the results of all workers are merged into one {@link ValidationReport}
+ * <br>
+ * <br> Rules are created inside the workers by a {@link Supplier} of {@link AnnotationValidation} with a public
+ * no-arg constructor. The workers get the jars or directories of this library and of the rules, everything else the
+ * rules need has to be on the given class path.
+ */
+public final class ForkedValidation {
+
+    private final Class<? extends Supplier<AnnotationValidation>> rules;
+    private final List<Path> classes;
+    private final List<Path> classPath;
+    private int workers;
+    private String maxHeap;
+    private String maxMetaspace;
+    private long timeoutMillis;
+    private boolean deep;
+
+
+    ForkedValidation(
+            @Nonnull final Class<? extends Supplier<AnnotationValidation>> rules) {
+        this.rules = rules;
+        classes = new ArrayList<>();
+        classPath = new ArrayList<>();
+        workers = Runtime.getRuntime().availableProcessors();
+        maxHeap = "512m";
+        maxMetaspace = "256m";
+        timeoutMillis = TimeUnit.HOURS.toMillis(1);
+    }
+
+
+    /**
+     * Adds directories or jar files whose Classes are to be validated, they are on the class path of the workers
+     *
+     * @param classPathEntries directories or jar files
+     * @return the ForkedValidation
+     */
+    @Nonnull
+    public ForkedValidation classes(
+            @Nonnull final Path... classPathEntries) {
+        classes.addAll(Arrays.asList(classPathEntries));
+        return this;
+    }
+
+
+    /**
+     * Adds directories or jar files needed to load the validated Classes, their Classes are not validated
+     *
+     * @param classPathEntries directories or jar files
+     * @return the ForkedValidation
+     */
+    @Nonnull
+    public ForkedValidation classPath(
+            @Nonnull final Path... classPathEntries) {
+        classPath.addAll(Arrays.asList(classPathEntries));
+        return this;
+    }
+
+
+    /**
+     * @param workerCount number of partitions and worker JVMs running in parallel, defaults to the number of
+     * available processors
+     * @return the ForkedValidation
+     */
+    @Nonnull
+    public ForkedValidation workers(
+            final int workerCount) {
+        workers = workerCount;
+        return this;
+    }
+
+
+    /**
+     * @param size maximum heap of each worker JVM in <code>-Xmx</code> notation, defaults to <code>512m</code>
+     * @return the ForkedValidation
+     */
+    @Nonnull
+    public ForkedValidation maxHeap(
+            @Nonnull final String size) {
+        maxHeap = size;
+        return this;
+    }
+
+
+    /**
+     * @param size maximum metaspace of each worker JVM in <code>-XX:MaxMetaspaceSize</code> notation, defaults to
+     * <code>256m</code>
+     * @return the ForkedValidation
+     */
+    @Nonnull
+    public ForkedValidation maxMetaspace(
+            @Nonnull final String size) {
+        maxMetaspace = size;
+        return this;
+    }
+
+
+    /**
+     * @param duration time all workers together may take, workers still running then are killed and reported as
+     * failed, defaults to one hour
+     * @param unit unit of the duration
+     * @return the ForkedValidation
+     */
+    @Nonnull
+    public ForkedValidation timeout(
+            final long duration,
+            @Nonnull final TimeUnit unit) {
+        timeoutMillis = unit.toMillis(duration);
+        return this;
+    }
+
+
+    /**
+     * Validates all declared members of the Classes as well, like {@link AnnotationValidation#forClassDeep(Class)}
+     *
+     * @return the ForkedValidation
+     */
+    @Nonnull
+    public ForkedValidation deep() {
+        deep = true;
+        return this;
+    }
+
+
+    /**
+     * Splits the Classes into partitions and validates them in worker JVMs
+     *
+     * @return the merged results of all workers
+     * @throws IOException if the class path could not be read or a worker could not be started
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    @Nonnull
+    public ValidationReport run() throws IOException, InterruptedException {
+        final List<String> classNames = new ArrayList<>();
+        for (final Path classPathEntry : classes) {
+            classNames.addAll(ClassPathScanner.getClassNames(classPathEntry));
+        }
+        // neighbouring Classes share most of their supertypes, so partitions are contiguous ranges of sorted names
+        Collections.sort(classNames);
+
+        final List<Path> workerClassPath = new ArrayList<>(classes);
+        workerClassPath.addAll(classPath);
+        // loaded by the class loader of the worker, so the rules see the given class path
+        workerClassPath.add(locationOf(rules));
+
+        final int partitionCount = Math.max(1, Math.min(workers, classNames.size()));
+        final Path workDirectory = Files.createTempDirectory("annotation-validation");
+        final List<Process> processes = new ArrayList<>();
+        final ValidationReport report;
+        try {
+            for (int i = 0; i < partitionCount; i++) {
+                final List<String> partition = classNames.subList(i * classNames.size() / partitionCount,
+                        (i + 1) * classNames.size() / partitionCount);
+                processes.add(startWorker(workDirectory.resolve("partition-" + i), workDirectory.resolve("result-" + i),
+                        workerClassPath, partition));
+            }
+            report = waitForReports(processes, workDirectory);
+        } catch (final Throwable e) {
+            // the original failure matters more than leftover files
+            try {
+                cleanUp(processes, workDirectory);
+            } catch (final IOException cleanUpFailure) {
+                e.addSuppressed(cleanUpFailure);
+            }
+            throw e;
+        }
+        cleanUp(processes, workDirectory);
+        return report;
+    }
+
+
+    @Nonnull
+    private ValidationReport waitForReports(
+            @Nonnull final List<Process> processes,
+            @Nonnull final Path workDirectory) throws IOException, InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        final List<ValidationReport> reports = new ArrayList<>();
+        for (int i = 0; i < processes.size(); i++) {
+            final Process process = processes.get(i);
+            if (!process.waitFor(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                process.destroyForcibly().waitFor();
+                reports.add(failedPartition(i, format("Worker timed out after %d ms", timeoutMillis)));
+                continue;
+            }
+            if (process.exitValue() != 0) {
+                reports.add(failedPartition(i, format("Worker failed with exit code %d", process.exitValue())));
+                continue;
+            }
+
+            try (final DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(workDirectory.resolve("result-" + i))))) {
+                reports.add(ForkedValidationWorker.readReport(in));
+            }
+        }
+        return ValidationReport.merge(reports);
+    }
+
+
+    @Nonnull
+    private static ValidationReport failedPartition(
+            final int partition,
+            @Nonnull final String message) {
+        return new ValidationReport(0, Collections.singletonList(new ValidationResult("partition " + partition,
+                Collections.singletonList(message))));
+    }
+
+
+    @Nonnull
+    private Process startWorker(
+            @Nonnull final Path partitionFile,
+            @Nonnull final Path resultFile,
+            @Nonnull final List<Path> workerClassPath,
+            @Nonnull final List<String> partition) throws IOException {
+        try (final DataOutputStream out =
+                     new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(partitionFile)))) {
+            ForkedValidationWorker.writeString(out, rules.getName());
+            out.writeBoolean(deep);
+            out.writeInt(workerClassPath.size());
+            for (final Path classPathEntry : workerClassPath) {
+                ForkedValidationWorker.writeString(out, classPathEntry.toUri().toURL().toString());
+            }
+            out.writeInt(partition.size());
+            for (final String className : partition) {
+                ForkedValidationWorker.writeString(out, className);
+            }
+        }
+
+        final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        // only what the worker itself needs, the class path of this JVM may be a launcher jar or belong to a plugin
+        final String workerSystemClassPath = locationOf(ForkedValidationWorker.class) + File.pathSeparator
+                + locationOf(ClassUtils.class);
+        return new ProcessBuilder(java,
+                "-Xmx" + maxHeap,
+                "-XX:MaxMetaspaceSize=" + maxMetaspace,
+                "-cp", workerSystemClassPath,
+                ForkedValidationWorker.class.getName(),
+                partitionFile.toString(),
+                resultFile.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+
+    /**
+     * @param type a Class loaded from a jar file or directory
+     * @return the jar file or directory
+     * @throws IOException if the Class was not loaded from a file
+     */
+    @Nonnull
+    private static Path locationOf(
+            @Nonnull final Class<?> type) throws IOException {
+        final CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if (codeSource != null && codeSource.getLocation() != null) {
+            try {
+                return Paths.get(codeSource.getLocation().toURI());
+            } catch (final URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+                throw new IOException(format("Could not locate %s at %s", type.getName(), codeSource.getLocation()),
+                        e);
+            }
+        }
+        throw new IOException(format("Could not locate %s, it has no code source", type.getName()));
+    }
+
+
+    private static void cleanUp(
+            @Nonnull final List<Process> processes,
+            @Nonnull final Path workDirectory) throws IOException {
+        processes.forEach(Process::destroyForcibly);
+        deleteRecursively(workDirectory);
+    }
+
+
+    private static void deleteRecursively(
+            @Nonnull final Path directory) throws IOException {
+        try (final Stream<Path> files = Files.walk(directory)) {
+            for (final Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
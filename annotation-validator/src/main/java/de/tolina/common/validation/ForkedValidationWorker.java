@@ -0,0 +1,163 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * Main class of the worker JVMs started by {@link ForkedValidation}
+ * <br> - reads a partition file with the rules, class path and Class names to be validated
+ * <br> - loads the Classes through its own class loader and validates them
+ * <br> - writes a result file with the number of validated elements and all failures
+ */
+final class ForkedValidationWorker {
+
+    private ForkedValidationWorker() {
+        // only static methods
+    }
+
+
+    /**
+     * @param args the partition file and the result file
+     * @throws Exception if the partition could not be read or the rules could not be created
+     */
+    public static void main(final String[] args) throws Exception {
+        final Path partitionFile = Paths.get(args[0]);
+        final Path resultFile = Paths.get(args[1]);
+
+        final String rulesClassName;
+        final boolean deep;
+        final List<URL> classPath = new ArrayList<>();
+        final List<String> classNames = new ArrayList<>();
+        try (final DataInputStream in =
+                     new DataInputStream(new BufferedInputStream(Files.newInputStream(partitionFile)))) {
+            rulesClassName = readString(in);
+            deep = in.readBoolean();
+            for (int i = in.readInt(); i > 0; i--) {
+                classPath.add(new URL(readString(in)));
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                classNames.add(readString(in));
+            }
+        }
+
+        final ValidationReport report;
+        try (final URLClassLoader classLoader = new URLClassLoader(classPath.toArray(new URL[]{}),
+                ForkedValidationWorker.class.getClassLoader())) {
+            @SuppressWarnings("unchecked")
+            final Supplier<AnnotationValidation> rules = (Supplier<AnnotationValidation>) Class
+                    .forName(rulesClassName, true, classLoader).getDeclaredConstructor().newInstance();
+            report = validate(rules.get(), classLoader, classNames, deep);
+        }
+
+        try (final DataOutputStream out =
+                     new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(resultFile)))) {
+            writeReport(out, report);
+        }
+    }
+
+
+    @Nonnull
+    private static ValidationReport validate(
+            @Nonnull final AnnotationValidation validation,
+            @Nonnull final ClassLoader classLoader,
+            @Nonnull final List<String> classNames,
+            final boolean deep) {
+        final TypeHierarchy typeHierarchy = new TypeHierarchy();
+        final List<ValidationResult> results = new ArrayList<>();
+        for (final String className : classNames) {
+            results.addAll(ParallelValidation.validateClass(validation, typeHierarchy, classLoader, className, deep));
+        }
+        return ParallelValidation.reportOf(results);
+    }
+
+
+    static void writeReport(
+            @Nonnull final DataOutputStream out,
+            @Nonnull final ValidationReport report) throws IOException {
+        out.writeInt(report.getValidatedElements());
+        out.writeInt(report.getFailures().size());
+        for (final ValidationResult failure : report.getFailures()) {
+            writeString(out, failure.getElement());
+            out.writeInt(failure.getErrors().size());
+            for (final String error : failure.getErrors()) {
+                writeString(out, error);
+            }
+            out.writeInt(failure.getInheritedErrors().size());
+            for (final String error : failure.getInheritedErrors()) {
+                writeString(out, error);
+            }
+        }
+    }
+
+
+    @Nonnull
+    static ValidationReport readReport(
+            @Nonnull final DataInputStream in) throws IOException {
+        final int validatedElements = in.readInt();
+        final List<ValidationResult> failures = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            final String element = readString(in);
+            final List<String> errors = new ArrayList<>();
+            for (int j = in.readInt(); j > 0; j--) {
+                errors.add(readString(in));
+            }
+            final List<String> inheritedErrors = new ArrayList<>();
+            for (int j = in.readInt(); j > 0; j--) {
+                inheritedErrors.add(readString(in));
+            }
+            failures.add(new ValidationResult(element, errors, inheritedErrors));
+        }
+        return new ValidationReport(validatedElements, failures);
+    }
+
+
+    /**
+     * Unlike {@link DataOutputStream#writeUTF(String)} this is not limited to 64k, error messages can be long
+     */
+    static void writeString(
+            @Nonnull final DataOutputStream out,
+            @Nonnull final String string) throws IOException {
+        final byte[] bytes = string.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+
+    @Nonnull
+    static String readString(
+            @Nonnull final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
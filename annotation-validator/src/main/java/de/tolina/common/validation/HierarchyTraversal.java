@@ -0,0 +1,27 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+/**
+ * Where the Annotations of an element are looked up, from cheapest to most expensive:
+ * <br> - DECLARED: only the element itself
+ * <br> - INHERITED: like {@link java.lang.reflect.AnnotatedElement#getAnnotations()}, Classes add
+ * {@link java.lang.annotation.Inherited} Annotations of their superclasses, members only have their own
+ * <br> - FULL: Classes and Methods are merged with all superclasses and interfaces, subtypes first
+ */
+public enum HierarchyTraversal {
+	DECLARED, INHERITED, FULL
+}
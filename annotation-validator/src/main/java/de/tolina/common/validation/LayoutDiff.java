@@ -0,0 +1,228 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.lang.String.format;
+
+
+/**
+ * Compares the annotation layouts of two builds of the same code, e.g. the last release and the current build
+ * <br> - every Class and all its declared members are resolved like {@link TypeHierarchy#getAllAnnotationsFor(Object)},
+ * an Annotation of the element itself hides the same type on its supertypes
+ * <br> - both sides are loaded by their own class loader and resolved in one pool of threads
+ * <br> - the elements are joined by signature, the baseline is hashed and the current build is probed against it
+ * <br> - the {@link ValidationMode} decides which differences are reported, as if the baseline was the definition
+ * <br>
+ * <br> Each changed, added or removed element with a reported difference is a failure of the resulting
+ * {@link ValidationReport}.
+ */
+public final class LayoutDiff {
+
+    private final Path baseline;
+    private final Path current;
+    private ClassLoader dependencies = LayoutDiff.class.getClassLoader();
+    private ValidationMode validationMode = ValidationMode.DEFAULT;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+
+    LayoutDiff(
+            @Nonnull final Path baseline,
+            @Nonnull final Path current) {
+        this.baseline = baseline;
+        this.current = current;
+    }
+
+
+    /**
+     * @param dependencyClassLoader parent of the class loaders of both sides, it has to load their dependencies but
+     * not the compared Classes themselves, defaults to the class loader of this library
+     * @return the LayoutDiff
+     */
+    @Nonnull
+    public LayoutDiff dependencies(
+            @Nonnull final ClassLoader dependencyClassLoader) {
+        dependencies = dependencyClassLoader;
+        return this;
+    }
+
+
+    /**
+     * @param mode which differences are reported, defaults to {@link ValidationMode#DEFAULT}
+     * <br> - {@link ValidationMode#DEFAULT}: removed Annotations and changed values
+     * <br> - {@link ValidationMode#ONLY}: added Annotations and a changed order as well
+     * <br> - {@link ValidationMode#EXACTLY}: added attributes as well
+     * @return the LayoutDiff
+     */
+    @Nonnull
+    public LayoutDiff mode(
+            @Nonnull final ValidationMode mode) {
+        validationMode = mode;
+        return this;
+    }
+
+
+    /**
+     * @param threadCount number of threads resolving layouts in parallel, defaults to the number of available
+     * processors
+     * @return the LayoutDiff
+     */
+    @Nonnull
+    public LayoutDiff threads(
+            final int threadCount) {
+        threads = threadCount;
+        return this;
+    }
+
+
+    /**
+     * Resolves and compares the layouts of both sides
+     *
+     * @return a report with all compared elements and a failure for each element that changed
+     * @throws IOException if a class path entry could not be read
+     * @throws InterruptedException if interrupted while waiting for the threads
+     * @throws IllegalStateException if a Class or attribute could not be read
+     */
+    @Nonnull
+    public ValidationReport run() throws IOException, InterruptedException {
+        final List<String> baselineClassNames = ClassPathScanner.getClassNames(baseline);
+        final List<String> currentClassNames = ClassPathScanner.getClassNames(current);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try (final URLClassLoader baselineLoader = new URLClassLoader(new URL[]{baseline.toUri().toURL()},
+                dependencies);
+             final URLClassLoader currentLoader = new URLClassLoader(new URL[]{current.toUri().toURL()},
+                     dependencies)) {
+            final List<Future<List<AnnotationLayout>>> baselineLayouts =
+                    submitAll(executor, baselineLoader, baselineClassNames);
+            final List<Future<List<AnnotationLayout>>> currentLayouts =
+                    submitAll(executor, currentLoader, currentClassNames);
+
+            // build side
+            final Map<String, AnnotationLayout> baselineBySignature = new LinkedHashMap<>();
+            for (final Future<List<AnnotationLayout>> layouts : baselineLayouts) {
+                for (final AnnotationLayout layout : getLayouts(layouts)) {
+                    baselineBySignature.put(layout.getSignature(), layout);
+                }
+            }
+
+            // probe side
+            int comparedElements = 0;
+            final List<ValidationResult> failures = new ArrayList<>();
+            for (final Future<List<AnnotationLayout>> layouts : currentLayouts) {
+                for (final AnnotationLayout currentLayout : getLayouts(layouts)) {
+                    comparedElements++;
+                    final AnnotationLayout baselineLayout = baselineBySignature.remove(currentLayout.getSignature());
+                    final List<String> differences = baselineLayout == null
+                            ? emptyLayoutOf(currentLayout).differencesTo(currentLayout, validationMode)
+                            : baselineLayout.differencesTo(currentLayout, validationMode);
+                    if (!differences.isEmpty()) {
+                        failures.add(new ValidationResult(currentLayout.getSignature(), differences));
+                    }
+                }
+            }
+
+            for (final AnnotationLayout removedLayout : baselineBySignature.values()) {
+                comparedElements++;
+                final List<String> differences =
+                        removedLayout.differencesTo(emptyLayoutOf(removedLayout), validationMode);
+                if (!differences.isEmpty()) {
+                    differences.add(0, format("Element not found in %s", current));
+                    failures.add(new ValidationResult(removedLayout.getSignature(), differences));
+                }
+            }
+
+            return new ValidationReport(comparedElements, failures);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    @Nonnull
+    private static List<Future<List<AnnotationLayout>>> submitAll(
+            @Nonnull final ExecutorService executor,
+            @Nonnull final ClassLoader classLoader,
+            @Nonnull final List<String> classNames) {
+        final TypeHierarchy typeHierarchy = new TypeHierarchy();
+        final List<Future<List<AnnotationLayout>>> futures = new ArrayList<>();
+        for (final String className : classNames) {
+            futures.add(executor.submit(() ->
+                    layoutsOf(typeHierarchy, classLoader, className)));
+        }
+        return futures;
+    }
+
+
+    /**
+     * @return the layouts of the Class and all its declared members, empty for skipped Classes
+     */
+    @Nonnull
+    private static List<AnnotationLayout> layoutsOf(
+            @Nonnull final TypeHierarchy typeHierarchy,
+            @Nonnull final ClassLoader classLoader,
+            @Nonnull final String className) {
+        final Class<?> annotatedClass;
+        try {
+            annotatedClass = Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IllegalStateException(format("Could not load class: %s", className), e);
+        }
+        if (annotatedClass.isAnonymousClass() || annotatedClass.isSynthetic()) {
+            return Collections.emptyList();
+        }
+
+        final List<AnnotationLayout> layouts = new ArrayList<>();
+        for (final Object annotatedElement : typeHierarchy.getAnnotatedElements(annotatedClass)) {
+            layouts.add(AnnotationLayout.of(annotatedElement, typeHierarchy));
+        }
+        return layouts;
+    }
+
+
+    @Nonnull
+    private static AnnotationLayout emptyLayoutOf(
+            @Nonnull final AnnotationLayout layout) {
+        return new AnnotationLayout(layout.getSignature(), new LinkedHashMap<>());
+    }
+
+
+    @Nonnull
+    private static List<AnnotationLayout> getLayouts(
+            @Nonnull final Future<List<AnnotationLayout>> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
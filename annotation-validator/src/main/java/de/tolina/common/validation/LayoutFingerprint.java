@@ -0,0 +1,136 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.util.Map;
+
+
+/**
+ * Computes a 64 bit FNV-1a hash of resolved Annotations and their attribute values in canonical form
+ * <br> Elements with equal fingerprints have the same effective Annotations, so a verdict computed for one of them
+ * holds for all. Types are identified by name, so fingerprints are stable across runs.
+ * <br> - texts are prefixed with their length, so no sequence of texts hashes like another one
+ * <br> - each Annotation instance is hashed once, elements add the remembered hash of its {@link AttributeSnapshot}
+ */
+final class LayoutFingerprint {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET_BASIS;
+
+
+    /**
+     * Adds an Annotation with all its attribute values
+     *
+     * @param annotation the Annotation
+     * @return this fingerprint
+     * @throws IllegalStateException if an attribute could not be read
+     */
+    @Nonnull
+    LayoutFingerprint add(
+            @Nonnull final Annotation annotation) {
+        return add('@').add(AttributeSnapshot.of(annotation).getFingerprint(annotation));
+    }
+
+
+    /**
+     * Hashes the type and attribute values of one Annotation, remembered by its {@link AttributeSnapshot}
+     *
+     * @param annotationType name of the Annotation type
+     * @param attributes names of all attributes mapped to their canonical values
+     * @return the hash of the Annotation
+     */
+    static long ofAnnotation(
+            @Nonnull final String annotationType,
+            @Nonnull final Map<String, String> attributes) {
+        final LayoutFingerprint fingerprint = new LayoutFingerprint().add(annotationType);
+        for (final Map.Entry<String, String> attribute : attributes.entrySet()) {
+            fingerprint.add(attribute.getKey()).add(attribute.getValue());
+        }
+        return fingerprint.getValue();
+    }
+
+
+    /**
+     * Adds where the last added Annotation is declared
+     *
+     * @param declaringElement signature of the declaring supertype or Method, null if declared by the element itself
+     * @return this fingerprint
+     */
+    @Nonnull
+    LayoutFingerprint addDeclaringElement(
+            @Nullable final String declaringElement) {
+        return declaringElement == null ? this : add('^').add(declaringElement);
+    }
+
+
+    /**
+     * Adds the absence of an Annotation
+     *
+     * @param annotationType the missing Annotation type
+     * @return this fingerprint
+     */
+    @Nonnull
+    LayoutFingerprint addMissing(
+            @Nonnull final Class<? extends Annotation> annotationType) {
+        return add('!').add(annotationType.getName());
+    }
+
+
+    long getValue() {
+        return hash;
+    }
+
+
+    /**
+     * Adds plain text, such as a rule description or a class path entry
+     *
+     * @param value the text
+     * @return this fingerprint
+     */
+    @Nonnull
+    LayoutFingerprint add(
+            @Nonnull final String value) {
+        add((char) (value.length() >>> 16)).add((char) value.length());
+        for (int i = 0; i < value.length(); i++) {
+            add(value.charAt(i));
+        }
+        return this;
+    }
+
+
+    @Nonnull
+    private LayoutFingerprint add(
+            final long value) {
+        for (int shift = 48; shift >= 0; shift -= 16) {
+            add((char) (value >>> shift));
+        }
+        return this;
+    }
+
+
+    @Nonnull
+    private LayoutFingerprint add(
+            final char value) {
+        hash = (hash ^ (value & 0xff)) * PRIME;
+        hash = (hash ^ (value >>> 8)) * PRIME;
+        return this;
+    }
+}
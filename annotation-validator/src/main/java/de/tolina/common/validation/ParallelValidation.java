@@ -0,0 +1,258 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+
+/**
+ * Validates the Classes of class path entries in a pool of threads of this JVM
+ * <br> - the rules and the resolved type hierarchy are kept between runs, so one instance may validate several
+ * class path entries, e.g. all modules of a build, sharing what was already resolved
+ * <br> - the Classes are loaded without being initialized, anonymous and synthetic Classes are skipped
+ * <br> - the most expensive Classes are validated first by a work stealing pool, so a few large Classes do not
+ * keep a single thread busy at the end; the cost is estimated from hierarchy depth and member count, or taken from
+ * the time a Class took in an earlier run of any ParallelValidation of the same rules
+ * <br> - all results are collected into one {@link ValidationReport}
+ * <br>
+ * <br> Instances may run concurrently.
+ */
+public final class ParallelValidation {
+
+    private final AnnotationValidation validation;
+    private final TypeHierarchy typeHierarchy;
+    // shared by all ParallelValidations of the rules
+    final ValidationCosts costs;
+    private int threads;
+    private boolean deep;
+
+
+    ParallelValidation(
+            @Nonnull final AnnotationValidation validation) {
+        this.validation = validation;
+        typeHierarchy = new TypeHierarchy();
+        costs = validation.parallelCosts;
+        threads = Runtime.getRuntime().availableProcessors();
+    }
+
+
+    /**
+     * @param threadCount number of threads validating in parallel, defaults to the number of available processors
+     * @return the ParallelValidation
+     */
+    @Nonnull
+    public ParallelValidation threads(
+            final int threadCount) {
+        threads = threadCount;
+        return this;
+    }
+
+
+    /**
+     * Validates all declared members of the Classes as well, like {@link AnnotationValidation#forClassDeep(Class)}
+     *
+     * @return the ParallelValidation
+     */
+    @Nonnull
+    public ParallelValidation deep() {
+        deep = true;
+        return this;
+    }
+
+
+    /**
+     * Validates all Classes of the given class path entries
+     *
+     * @param classLoader loads the Classes, e.g. a class loader for the entries and their dependencies
+     * @param classPathEntries directories or jar files whose Classes are to be validated
+     * @return the results of all Classes
+     * @throws IOException if a class path entry could not be read
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    @Nonnull
+    public ValidationReport run(
+            @Nonnull final ClassLoader classLoader,
+            @Nonnull final Path... classPathEntries) throws IOException, InterruptedException {
+        final List<String> classNames = new ArrayList<>();
+        for (final Path classPathEntry : classPathEntries) {
+            classNames.addAll(ClassPathScanner.getClassNames(classPathEntry));
+        }
+
+        // FIFO work stealing pool, so tasks are started in the order they are submitted
+        final ForkJoinPool pool =
+                new ForkJoinPool(Math.max(1, threads), ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        try {
+            final List<Future<Double>> structuralCosts = new ArrayList<>();
+            for (final String className : classNames) {
+                structuralCosts.add(pool.submit(() -> structuralCostOf(classLoader, className)));
+            }
+            double totalCostUnits = 0;
+            final double[] estimatedCosts = new double[classNames.size()];
+            for (int i = 0; i < estimatedCosts.length; i++) {
+                final double structuralCost = getResults(structuralCosts.get(i));
+                totalCostUnits += structuralCost;
+                estimatedCosts[i] = costs.estimate(classNames.get(i), structuralCost);
+            }
+
+            final List<Integer> mostExpensiveFirst = new ArrayList<>();
+            for (int i = 0; i < estimatedCosts.length; i++) {
+                mostExpensiveFirst.add(i);
+            }
+            mostExpensiveFirst.sort(Comparator.comparingDouble((Integer i) -> estimatedCosts[i]).reversed());
+
+            final List<Future<List<ValidationResult>>> futures =
+                    new ArrayList<>(Collections.nCopies(estimatedCosts.length, null));
+            final AtomicLong totalNanos = new AtomicLong();
+            for (final int i : mostExpensiveFirst) {
+                final String className = classNames.get(i);
+                futures.set(i, pool.submit(() -> {
+                    final long start = System.nanoTime();
+                    final List<ValidationResult> results =
+                            validateClass(validation, typeHierarchy, classLoader, className, deep);
+                    final long nanos = System.nanoTime() - start;
+                    costs.record(className, nanos);
+                    totalNanos.addAndGet(nanos);
+                    return results;
+                }));
+            }
+
+            // reported in class path order
+            final List<ValidationReport> reports = new ArrayList<>();
+            for (final Future<List<ValidationResult>> future : futures) {
+                reports.add(reportOf(getResults(future)));
+            }
+
+            costs.calibrate(totalNanos.get(), totalCostUnits);
+            return ValidationReport.merge(reports);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Resolving the hierarchy grows with its depth, validating deep with the number of members
+     *
+     * @return the estimated cost in arbitrary units, 0 for Classes that could not be loaded
+     */
+    double structuralCostOf(
+            @Nonnull final ClassLoader classLoader,
+            @Nonnull final String className) {
+        final Class<?> annotatedClass;
+        try {
+            annotatedClass = Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return 0;
+        }
+
+        int hierarchyDepth = 0;
+        for (Class<?> aClass = annotatedClass; aClass != null; aClass = aClass.getSuperclass()) {
+            hierarchyDepth += 1 + aClass.getInterfaces().length;
+        }
+        if (!deep) {
+            return hierarchyDepth;
+        }
+
+        try {
+            final int members = annotatedClass.getDeclaredConstructors().length
+                    + annotatedClass.getDeclaredMethods().length + annotatedClass.getDeclaredFields().length;
+            return (double) hierarchyDepth * (1 + members);
+        } catch (final LinkageError e) {
+            return hierarchyDepth;
+        }
+    }
+
+
+    /**
+     * Loads and validates a single Class
+     *
+     * @return the results of the Class and, if deep, its members, empty for skipped Classes
+     */
+    @Nonnull
+    static List<ValidationResult> validateClass(
+            @Nonnull final AnnotationValidation validation,
+            @Nonnull final TypeHierarchy typeHierarchy,
+            @Nonnull final ClassLoader classLoader,
+            @Nonnull final String className,
+            final boolean deep) {
+        final Class<?> annotatedClass;
+        try {
+            annotatedClass = Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return Collections.singletonList(new ValidationResult(className,
+                    Collections.singletonList(format("Could not load class: %s", e))));
+        }
+
+        if (annotatedClass.isAnonymousClass() || annotatedClass.isSynthetic()) {
+            return Collections.emptyList();
+        }
+
+        try {
+            return deep
+                    ? validation.validateClassDeep(annotatedClass, typeHierarchy)
+                    : Collections.singletonList(validation.validateElement(annotatedClass, typeHierarchy));
+        } catch (final LinkageError e) {
+            // members may refer to missing Classes, which is only noticed when they are resolved
+            return Collections.singletonList(new ValidationResult(className,
+                    Collections.singletonList(format("Could not load class: %s", e))));
+        }
+    }
+
+
+    /**
+     * @return a report of the given results with only the failures kept
+     */
+    @Nonnull
+    static ValidationReport reportOf(
+            @Nonnull final List<ValidationResult> results) {
+        final List<ValidationResult> failures = new ArrayList<>();
+        for (final ValidationResult result : results) {
+            if (!result.isValid()) {
+                failures.add(result);
+            }
+        }
+        return new ValidationReport(results.size(), failures);
+    }
+
+
+    @Nonnull
+    private static <T> T getResults(
+            @Nonnull final Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
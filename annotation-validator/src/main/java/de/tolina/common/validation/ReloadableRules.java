@@ -0,0 +1,206 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.AnnotatedElement;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+
+/**
+ * Rules read from a file in the format of {@link RuleFile}, reloaded whenever the file changes
+ * <br> - each version of the file is compiled into a new {@link AnnotationValidation} that is never modified
+ * afterwards, so it may be used by many threads at once
+ * <br> - a new version replaces the old one atomically, validations already running finish with the old one and
+ * nobody waits for a reload
+ * <br> - a file that could not be read keeps the previous rules in place, see {@link #getReloadFailure()}
+ * <br>
+ * <br> The file is watched by a daemon thread until this instance is closed. It is read once no more changes
+ * occurred for 100 milliseconds, so a file being written is not read half way.
+ */
+public final class ReloadableRules implements Closeable {
+
+    private static final long QUIET_PERIOD_MILLIS = 100;
+
+    private final Path ruleFile;
+    private final ClassLoader classLoader;
+    private final AtomicReference<AnnotationValidation> currentRules = new AtomicReference<>();
+    private final AtomicReference<Exception> reloadFailure = new AtomicReference<>();
+    private final AtomicLong version = new AtomicLong();
+    private final WatchService watchService;
+
+
+    private ReloadableRules(
+            @Nonnull final Path ruleFile,
+            @Nonnull final ClassLoader classLoader) throws IOException {
+        this.ruleFile = ruleFile.toAbsolutePath();
+        this.classLoader = classLoader;
+
+        currentRules.set(read());
+        version.set(1);
+
+        watchService = FileSystems.getDefault().newWatchService();
+        try {
+            this.ruleFile.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (final IOException e) {
+            watchService.close();
+            throw e;
+        }
+        final Thread watcher = new Thread(this::watch, "annotation-rules-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+
+    /**
+     * Reads the given rule file and watches it for changes
+     *
+     * @param ruleFile the rules
+     * @param classLoader loads the Annotation types and Classes named in the rules
+     * @return the rules, to be closed when not needed anymore
+     * @throws IOException if the file could not be read or watched
+     * @throws IllegalArgumentException if the file contains invalid rules
+     */
+    @Nonnull
+    public static ReloadableRules watch(
+            @Nonnull final Path ruleFile,
+            @Nonnull final ClassLoader classLoader) throws IOException {
+        return new ReloadableRules(ruleFile, classLoader);
+    }
+
+
+    /**
+     * Like {@link AnnotationValidation#check(Class)} with the current rules
+     *
+     * @param annotatedClass the Class to be checked
+     * @return whether the Class passes validation
+     */
+    public boolean check(
+            @Nonnull final Class<?> annotatedClass) {
+        return currentRules.get().check(annotatedClass);
+    }
+
+
+    /**
+     * Like {@link AnnotationValidation#resultFor(AnnotatedElement)} with the current rules
+     *
+     * @param annotatedElement the element to be validated
+     * @return the result of the element
+     */
+    @Nonnull
+    public ValidationResult resultFor(
+            @Nonnull final AnnotatedElement annotatedElement) {
+        return currentRules.get().resultFor(annotatedElement);
+    }
+
+
+    /**
+     * Reads the file again, e.g. if changes might have been missed
+     * <br> Reloads run one after another, validations do not wait for them.
+     *
+     * @return true if the rules were replaced, false if the file could not be read and the previous rules are kept
+     */
+    public synchronized boolean reload() {
+        final AnnotationValidation rules;
+        try {
+            rules = read();
+        } catch (final IOException | RuntimeException e) {
+            reloadFailure.set(e);
+            return false;
+        }
+
+        currentRules.set(rules);
+        version.incrementAndGet();
+        reloadFailure.set(null);
+        return true;
+    }
+
+
+    /**
+     * @return the number of versions read so far, starting with 1
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+
+    /**
+     * @return why the last reload failed, null if it succeeded
+     */
+    @Nullable
+    public Exception getReloadFailure() {
+        return reloadFailure.get();
+    }
+
+
+    /**
+     * Stops watching the file, the current rules remain usable
+     *
+     * @throws IOException if the watch service could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+
+    @Nonnull
+    private AnnotationValidation read() throws IOException {
+        return RuleFile.parse(Files.readAllLines(ruleFile, UTF_8), classLoader);
+    }
+
+
+    private void watch() {
+        try {
+            while (true) {
+                // writing a file causes several events, the file is read once they are over
+                boolean changed = false;
+                for (WatchKey key = watchService.take(); key != null;
+                     key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) {
+                    for (final WatchEvent<?> event : key.pollEvents()) {
+                        changed |= ruleFile.getFileName().equals(event.context());
+                    }
+                    if (!key.reset()) {
+                        return;
+                    }
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (final ClosedWatchServiceException e) {
+            // closed
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
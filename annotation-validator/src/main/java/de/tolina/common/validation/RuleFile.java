@@ -0,0 +1,264 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.tolina.common.validation.AnnotationDefinition.type;
+import static java.lang.String.format;
+
+
+/**
+ * Reads rules from lines of text into a new {@link AnnotationValidation}, e.g.
+ * <pre>
+ * # plugins have to declare exactly these Annotations
+ * mode = ONLY
+ * traversal = DECLARED
+ * &#64;com.example.Plugin
+ * vendor = ACME
+ * capabilities = READ, WRITE
+ * &#64;com.example.Licensed
+ * </pre>
+ * <br> - <code>mode</code> and <code>traversal</code> take the names of {@link ValidationMode} and
+ * {@link HierarchyTraversal}
+ * <br> - a line starting with <code>@</code> starts the definition of an Annotation type, the following
+ * <code>name = value</code> lines are its parameters
+ * <br> - values are converted to the return type of the parameter: Strings, primitives, enum constants by name and
+ * Classes by name, arrays as comma separated elements; booleans are <code>true</code> or <code>false</code>
+ * <br> - quotes around Strings are optional, quoted Strings may contain commas and escape quotes and backslashes
+ * with a backslash, e.g. <code>"a, b", "say \"hi\""</code>
+ * <br> - empty lines and lines starting with <code>#</code> are ignored
+ */
+final class RuleFile {
+
+    private RuleFile() {
+        // only static methods
+    }
+
+
+    /**
+     * @param lines the rules
+     * @param classLoader loads the Annotation types and Classes named in the rules
+     * @return a new validation with the given rules
+     * @throws IllegalArgumentException if a line could not be read, naming the line
+     */
+    @Nonnull
+    static AnnotationValidation parse(
+            @Nonnull final List<String> lines,
+            @Nonnull final ClassLoader classLoader) {
+        final AnnotationValidation validation = AnnotationValidator.validate();
+        final List<AnnotationDefinition> annotationDefinitions = new ArrayList<>();
+        AnnotationDefinition currentDefinition = null;
+
+        for (int lineNumber = 1; lineNumber <= lines.size(); lineNumber++) {
+            final String line = lines.get(lineNumber - 1).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            try {
+                if (line.startsWith("@")) {
+                    currentDefinition = type(loadClass(line.substring(1).trim(), classLoader)
+                            .asSubclass(Annotation.class));
+                    annotationDefinitions.add(currentDefinition);
+                    continue;
+                }
+
+                final int separator = line.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Expected name = value");
+                }
+                final String name = line.substring(0, separator).trim();
+                final String value = line.substring(separator + 1).trim();
+
+                if (currentDefinition == null) {
+                    applySetting(validation, name, value);
+                } else {
+                    addParam(currentDefinition, name, value, classLoader);
+                }
+            } catch (final IllegalArgumentException | ClassCastException e) {
+                throw new IllegalArgumentException(format("Line %d '%s': %s", lineNumber, line, e.getMessage()), e);
+            }
+        }
+
+        for (final AnnotationDefinition annotationDefinition : annotationDefinitions) {
+            validation.annotation(annotationDefinition);
+        }
+        return validation;
+    }
+
+
+    private static void applySetting(
+            @Nonnull final AnnotationValidation validation,
+            @Nonnull final String name,
+            @Nonnull final String value) {
+        if ("mode".equals(name)) {
+            final ValidationMode validationMode = ValidationMode.valueOf(value);
+            if (validationMode == ValidationMode.ONLY) {
+                validation.only();
+            } else if (validationMode == ValidationMode.EXACTLY) {
+                validation.exactly();
+            }
+        } else if ("traversal".equals(name)) {
+            validation.traversal(HierarchyTraversal.valueOf(value));
+        } else {
+            throw new IllegalArgumentException(format("Unknown setting %s", name));
+        }
+    }
+
+
+    private static void addParam(
+            @Nonnull final AnnotationDefinition annotationDefinition,
+            @Nonnull final String name,
+            @Nonnull final String value,
+            @Nonnull final ClassLoader classLoader) {
+        final Class<?> returnType;
+        try {
+            returnType = annotationDefinition.getAnnotation().getMethod(name).getReturnType();
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalArgumentException(format("Method %s not found", name), e);
+        }
+
+        if (!returnType.isArray()) {
+            annotationDefinition.param(name, convert(value, returnType, classLoader));
+            return;
+        }
+
+        final List<String> elements = splitElements(value);
+        final Object values = Array.newInstance(returnType.getComponentType(), elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            Array.set(values, i, convert(elements.get(i), returnType.getComponentType(), classLoader));
+        }
+        // primitive arrays are compared as a single value, arrays of Objects element by element
+        annotationDefinition.param(name, returnType.getComponentType().isPrimitive()
+                ? new Object[]{values}
+                : (Object[]) values);
+    }
+
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Nonnull
+    private static Object convert(
+            @Nonnull final String value,
+            @Nonnull final Class<?> type,
+            @Nonnull final ClassLoader classLoader) {
+        if (type == String.class) {
+            return unquote(value);
+        }
+        if (type.isEnum()) {
+            return Enum.valueOf((Class<? extends Enum>) type, value);
+        }
+        if (type == Class.class) {
+            return loadClass(value, classLoader);
+        }
+        if (type == boolean.class) {
+            if (!"true".equals(value) && !"false".equals(value)) {
+                throw new IllegalArgumentException(format("Expected true or false but found %s", value));
+            }
+            return Boolean.valueOf(value);
+        }
+        if (type == char.class && value.length() == 1) {
+            return value.charAt(0);
+        }
+        if (type == byte.class) {
+            return Byte.valueOf(value);
+        }
+        if (type == short.class) {
+            return Short.valueOf(value);
+        }
+        if (type == int.class) {
+            return Integer.valueOf(value);
+        }
+        if (type == long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == float.class) {
+            return Float.valueOf(value);
+        }
+        if (type == double.class) {
+            return Double.valueOf(value);
+        }
+        throw new IllegalArgumentException(format("Values of type %s are not supported", type.getName()));
+    }
+
+
+    /**
+     * Splits array values at commas outside of quotes, the elements keep their quotes and escapes
+     */
+    @Nonnull
+    private static List<String> splitElements(
+            @Nonnull final String value) {
+        final List<String> elements = new ArrayList<>();
+        if (value.isEmpty()) {
+            return elements;
+        }
+
+        final StringBuilder element = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < value.length(); i++) {
+            final char character = value.charAt(i);
+            if (quoted && character == '\\' && i + 1 < value.length()) {
+                element.append(character).append(value.charAt(++i));
+            } else if (character == ',' && !quoted) {
+                elements.add(element.toString().trim());
+                element.setLength(0);
+            } else {
+                quoted ^= character == '"';
+                element.append(character);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Missing closing quote");
+        }
+        elements.add(element.toString().trim());
+        return elements;
+    }
+
+
+    /**
+     * Removes the quotes around a String and resolves its escaped quotes and backslashes
+     */
+    @Nonnull
+    private static String unquote(
+            @Nonnull final String value) {
+        if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            return value;
+        }
+
+        final StringBuilder unquoted = new StringBuilder(value.length() - 2);
+        for (int i = 1; i < value.length() - 1; i++) {
+            final char character = value.charAt(i);
+            unquoted.append(character == '\\' && i + 1 < value.length() - 1 ? value.charAt(++i) : character);
+        }
+        return unquoted.toString();
+    }
+
+
+    @Nonnull
+    private static Class<?> loadClass(
+            @Nonnull final String className,
+            @Nonnull final ClassLoader classLoader) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (final ClassNotFoundException e) {
+            throw new IllegalArgumentException(format("Class %s not found", className), e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+
+/**
+ * Decides which Classes {@link AnnotationValidation#check(Class)} validates in full, see
+ * {@link AnnotationValidation#sampling(Sampling)}
+ * <br> - a fraction of the Classes is validated in full, the others only have to carry all defined Annotations
+ * <br> - stratified sampling validates the first Class of each package or class loader in full and then every
+ * n-th one, so drift in a single package or plugin is found as well
+ * <br> - with a cost budget the fraction is lowered while full validations turn out to be expensive
+ * <br>
+ * <br> An instance keeps counters and is meant for a single AnnotationValidation. It may be used concurrently.
+ */
+public final class Sampling {
+
+    private static final double EWMA_WEIGHT = 0.1;
+
+    private final double rate;
+    private Stratification stratification = Stratification.NONE;
+    private long budgetNanos;
+
+    private final Map<String, AtomicLong> packageCounters = new ConcurrentHashMap<>();
+    private final Map<ClassLoader, AtomicLong> classLoaderCounters =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private final AtomicLong fullValidations = new AtomicLong();
+    private final AtomicLong presenceChecks = new AtomicLong();
+    private volatile double averageCostNanos;
+
+
+    private Sampling(
+            final double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException(format("Sampling rate %s is not between 0 and 1.", rate));
+        }
+        this.rate = rate;
+    }
+
+
+    /**
+     * @param fraction fraction of Classes to be validated in full, between 0 and 1
+     * @return a Sampling validating the given fraction of all Classes
+     */
+    @Nonnull
+    public static Sampling rate(
+            final double fraction) {
+        return new Sampling(fraction);
+    }
+
+
+    /**
+     * Samples each package on its own, its first Class is always validated in full
+     *
+     * @return the Sampling
+     */
+    @Nonnull
+    public Sampling perPackage() {
+        stratification = Stratification.PACKAGE;
+        return this;
+    }
+
+
+    /**
+     * Samples the Classes of each class loader on their own, e.g. per plugin, its first Class is always validated
+     * in full
+     *
+     * @return the Sampling
+     */
+    @Nonnull
+    public Sampling perClassLoader() {
+        stratification = Stratification.CLASS_LOADER;
+        return this;
+    }
+
+
+    /**
+     * Lowers the rate while the observed cost of full validations exceeds the given budget per checked Class
+     *
+     * @param budget average time full validations may add to each checked Class
+     * @param unit unit of the budget
+     * @return the Sampling
+     */
+    @Nonnull
+    public Sampling costBudget(
+            final long budget,
+            @Nonnull final TimeUnit unit) {
+        budgetNanos = unit.toNanos(budget);
+        return this;
+    }
+
+
+    /**
+     * @return the fraction currently used, lower than the configured rate if the cost budget is exceeded
+     */
+    public double getEffectiveRate() {
+        final double cost = averageCostNanos;
+        if (budgetNanos <= 0 || cost <= budgetNanos) {
+            return rate;
+        }
+        return Math.min(rate, budgetNanos / cost);
+    }
+
+
+    /**
+     * @return number of Classes validated in full
+     */
+    public long getFullValidationCount() {
+        return fullValidations.get();
+    }
+
+
+    /**
+     * @return number of Classes only checked for the presence of the defined Annotations
+     */
+    public long getPresenceCheckCount() {
+        return presenceChecks.get();
+    }
+
+
+    /**
+     * @param annotatedClass a Class seen for the first time
+     * @return true if the Class is to be validated in full
+     */
+    boolean isSampled(
+            @Nonnull final Class<?> annotatedClass) {
+        final double effectiveRate = getEffectiveRate();
+        final boolean sampled;
+
+        if (stratification == Stratification.NONE) {
+            // deterministic per Class name, so the same Classes are picked in every run
+            sampled = (mix(annotatedClass.getName().hashCode()) & 0xFFFFFF) < effectiveRate * 0x1000000;
+        } else {
+            final long seen = counterFor(annotatedClass).getAndIncrement();
+            // the first Class of each stratum, then one more whenever the fraction adds up to a whole Class
+            sampled = seen == 0 || Math.floor((seen + 1) * effectiveRate) > Math.floor(seen * effectiveRate);
+        }
+
+        (sampled ? fullValidations : presenceChecks).incrementAndGet();
+        return sampled;
+    }
+
+
+    /**
+     * @param costNanos time a full validation took
+     */
+    void recordCost(
+            final long costNanos) {
+        final double cost = averageCostNanos;
+        averageCostNanos = cost == 0 ? costNanos : cost + EWMA_WEIGHT * (costNanos - cost);
+    }
+
+
+    @Nonnull
+    private AtomicLong counterFor(
+            @Nonnull final Class<?> annotatedClass) {
+        if (stratification == Stratification.PACKAGE) {
+            final String className = annotatedClass.getName();
+            final String packageName = className.substring(0, Math.max(0, className.lastIndexOf('.')));
+            return packageCounters.computeIfAbsent(packageName, name -> new AtomicLong());
+        }
+        synchronized (classLoaderCounters) {
+            return classLoaderCounters.computeIfAbsent(annotatedClass.getClassLoader(), loader -> new AtomicLong());
+        }
+    }
+
+
+    private static int mix(
+            final int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+
+    private enum Stratification {
+        NONE, PACKAGE, CLASS_LOADER
+    }
+}
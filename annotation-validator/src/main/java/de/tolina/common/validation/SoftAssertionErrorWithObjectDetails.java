@@ -18,22 +18,37 @@
  */
 package de.tolina.common.validation;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-import org.assertj.core.api.SoftAssertionError;
-
-final class SoftAssertionErrorWithObjectDetails extends SoftAssertionError {
+final class SoftAssertionErrorWithObjectDetails extends AssertionError {
 	private static final long serialVersionUID = 5527685338875086360L;
+	private final List<String> errors;
 	private final String annotatedObject;
 
 	SoftAssertionErrorWithObjectDetails(final List<String> errors, final Object annotatedObject) {
-		super(errors);
+		super(describeErrors(errors));
+		this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
 		this.annotatedObject = annotatedObject.toString();
 	}
 
+	List<String> getErrors() {
+		return errors;
+	}
+
 	// if you are in a test loop and do not know witch object is under test, let's add this information to errormessage
 	@Override
 	public String getMessage() {
 		return "\nError on Validating " + annotatedObject + "\n" + super.getMessage();
 	}
+
+	private static String describeErrors(final List<String> errors) {
+		final StringBuilder description = new StringBuilder("\nThe following ").append(errors.size())
+				.append(errors.size() == 1 ? " assertion" : " assertions").append(" failed:\n");
+		for (int i = 0; i < errors.size(); i++) {
+			description.append(i + 1).append(") ").append(errors.get(i)).append("\n");
+		}
+		return description.toString();
+	}
 }
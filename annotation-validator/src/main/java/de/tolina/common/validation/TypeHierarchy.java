@@ -0,0 +1,419 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Resolves the Annotations of Classes, Methods, Fields, Constructors and Parameters including their type hierarchy.
+ * <br> Supertypes, interfaces and declared Methods are read only once per type and shared by all lookups,
+ * so one instance should be used for all elements of a single validation run.
+ * <br> Instances may be shared by concurrent validations.
+ */
+final class TypeHierarchy {
+
+    private final Map<Class<?>, List<Class<?>>> superclasses = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<Class<?>>> interfaces = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Map<String, List<Method>>> declaredMethodsByName = new ConcurrentHashMap<>();
+
+
+    /**
+     * Returns the given Class followed by all its declared Constructors, Methods and Fields.
+     * <br> Parameters follow their Constructor or Method, synthetic members are skipped.
+     *
+     * @param annotatedClass the Class to be split up
+     * @return the Class and all its members
+     */
+    @Nonnull
+    List<Object> getAnnotatedElements(
+            @Nonnull final Class<?> annotatedClass) {
+        final List<Object> annotatedElements = new ArrayList<>();
+        annotatedElements.add(annotatedClass);
+
+        for (final Constructor<?> constructor : annotatedClass.getDeclaredConstructors()) {
+            addExecutable(annotatedElements, constructor);
+        }
+
+        for (final List<Method> methods : getDeclaredMethodsByName(annotatedClass).values()) {
+            for (final Method method : methods) {
+                addExecutable(annotatedElements, method);
+            }
+        }
+
+        for (final Field field : annotatedClass.getDeclaredFields()) {
+            if (!field.isSynthetic()) {
+                annotatedElements.add(field);
+            }
+        }
+
+        return annotatedElements;
+    }
+
+
+    /**
+     * Calls dependent on the type of the given Object:
+     * <br> - Methods are merged with all Methods of the same signature in superclasses and interfaces
+     * <br> - Classes are merged with all superclasses and interfaces
+     * <br> - Fields, Constructors and Parameters return their own Annotations
+     *
+     * @param annotated a Class, Method, Field, Constructor or Parameter
+     * @return all Annotations in hierarchy order without duplicates
+     */
+    @Nonnull
+    Annotation[] getAllAnnotationsFor(
+            @Nonnull final Object annotated) {
+        return getAllAnnotationsFor(annotated, HierarchyTraversal.FULL);
+    }
+
+
+    /**
+     * Like {@link #getAllAnnotationsFor(Object)}, but only walks the hierarchy as far as the given traversal
+     *
+     * @param annotated a Class, Method, Field, Constructor or Parameter
+     * @param traversal where the Annotations are looked up
+     * @return all Annotations in hierarchy order without duplicates
+     */
+    @Nonnull
+    Annotation[] getAllAnnotationsFor(
+            @Nonnull final Object annotated,
+            @Nonnull final HierarchyTraversal traversal) {
+        if (traversal == HierarchyTraversal.DECLARED) {
+            return ((AnnotatedElement) annotated).getDeclaredAnnotations();
+        }
+
+        if (traversal == HierarchyTraversal.INHERITED) {
+            return ((AnnotatedElement) annotated).getAnnotations();
+        }
+
+        if (annotated instanceof Field) {
+            return ((Field) annotated).getAnnotations();
+        }
+
+        if (annotated instanceof Constructor) {
+            return ((Constructor) annotated).getAnnotations();
+        }
+
+        if (annotated instanceof Parameter) {
+            return ((Parameter) annotated).getAnnotations();
+        }
+
+        if (annotated instanceof Method) {
+            final Method annotatedMethod = (Method) annotated;
+            final Collection<Annotation> allAnnotations = new LinkedHashSet<>();
+
+            for (final Class<?> aClass : getClassWithSuperclasses(annotatedMethod.getDeclaringClass())) {
+                addAnnotationsOfSameMethods(allAnnotations, aClass, annotatedMethod);
+
+                for (final Class<?> anInterface : getAllInterfaces(aClass)) {
+                    addAnnotationsOfSameMethods(allAnnotations, anInterface, annotatedMethod);
+                }
+            }
+
+            return allAnnotations.toArray(new Annotation[]{});
+        }
+
+        final Class<?> annotatedClass = (Class<?>) annotated;
+        final Collection<Annotation> allAnnotations = new LinkedHashSet<>();
+
+        for (final Class<?> aClass : getClassWithSuperclasses(annotatedClass)) {
+            allAnnotations.addAll(Arrays.asList(aClass.getAnnotations()));
+
+            for (final Class<?> anInterface : getAllInterfaces(aClass)) {
+                allAnnotations.addAll(Arrays.asList(anInterface.getAnnotations()));
+            }
+        }
+
+        return allAnnotations.toArray(new Annotation[]{});
+    }
+
+
+    /**
+     * Looks up only the given Annotation types in the same order as {@link #getAllAnnotationsFor(Object)}, but
+     * without creating all other Annotations of the hierarchy.
+     * <br> Supertypes are visited one after another and the search stops as soon as all types are found.
+     *
+     * @param annotated a Class, Method, Field, Constructor or Parameter
+     * @param annotationTypes the Annotation types to look for
+     * @param traversal where the Annotations are looked up
+     * @return the first Annotation found for each type, missing types are not contained
+     */
+    @Nonnull
+    Map<Class<? extends Annotation>, Annotation> findAnnotationsFor(
+            @Nonnull final Object annotated,
+            @Nonnull final Collection<Class<? extends Annotation>> annotationTypes,
+            @Nonnull final HierarchyTraversal traversal) {
+        final Map<Class<? extends Annotation>, Annotation> foundAnnotations = new HashMap<>();
+
+        if (traversal == HierarchyTraversal.DECLARED) {
+            for (final Class<? extends Annotation> annotationType : annotationTypes) {
+                final Annotation annotation = findAnnotation((AnnotatedElement) annotated, annotationType, true);
+                if (annotation != null) {
+                    foundAnnotations.put(annotationType, annotation);
+                }
+            }
+            return foundAnnotations;
+        }
+
+        if (traversal == HierarchyTraversal.INHERITED
+                || !(annotated instanceof Class) && !(annotated instanceof Method)) {
+            addAnnotations(foundAnnotations, (AnnotatedElement) annotated, annotationTypes);
+            return foundAnnotations;
+        }
+
+        if (annotated instanceof Method) {
+            final Method annotatedMethod = (Method) annotated;
+
+            for (final Class<?> aClass : getClassWithSuperclasses(annotatedMethod.getDeclaringClass())) {
+                if (addAnnotationsOfSameMethods(foundAnnotations, aClass, annotatedMethod, annotationTypes)) {
+                    return foundAnnotations;
+                }
+
+                for (final Class<?> anInterface : getAllInterfaces(aClass)) {
+                    if (addAnnotationsOfSameMethods(foundAnnotations, anInterface, annotatedMethod, annotationTypes)) {
+                        return foundAnnotations;
+                    }
+                }
+            }
+
+            return foundAnnotations;
+        }
+
+        for (final Class<?> aClass : getClassWithSuperclasses((Class<?>) annotated)) {
+            if (addAnnotations(foundAnnotations, aClass, annotationTypes)) {
+                return foundAnnotations;
+            }
+
+            for (final Class<?> anInterface : getAllInterfaces(aClass)) {
+                if (addAnnotations(foundAnnotations, anInterface, annotationTypes)) {
+                    return foundAnnotations;
+                }
+            }
+        }
+
+        return foundAnnotations;
+    }
+
+
+    /**
+     * Finds where an Annotation resolved for the given element is actually declared
+     *
+     * @param annotated a Class, Method, Field, Constructor or Parameter
+     * @param annotation an Annotation resolved for it by this hierarchy
+     * @return the supertype or overridden Method declaring the Annotation, the element itself if it declares the
+     * Annotation or if it cannot inherit Annotations
+     */
+    @Nonnull
+    Object getDeclaringElement(
+            @Nonnull final Object annotated,
+            @Nonnull final Annotation annotation) {
+        final Class<? extends Annotation> annotationType = annotation.annotationType();
+
+        if (annotated instanceof Method) {
+            final Method annotatedMethod = (Method) annotated;
+            if (annotatedMethod.getDeclaredAnnotation(annotationType) == annotation) {
+                return annotated;
+            }
+            for (final Class<?> aClass : getClassWithSuperclasses(annotatedMethod.getDeclaringClass())) {
+                final Method declaringMethod = findDeclaringMethod(aClass, annotatedMethod, annotation);
+                if (declaringMethod != null) {
+                    return declaringMethod;
+                }
+                for (final Class<?> anInterface : getAllInterfaces(aClass)) {
+                    final Method declaringInterfaceMethod = findDeclaringMethod(anInterface, annotatedMethod,
+                            annotation);
+                    if (declaringInterfaceMethod != null) {
+                        return declaringInterfaceMethod;
+                    }
+                }
+            }
+            return annotated;
+        }
+
+        if (annotated instanceof Class) {
+            for (final Class<?> aClass : getClassWithSuperclasses((Class<?>) annotated)) {
+                if (aClass.getDeclaredAnnotation(annotationType) == annotation) {
+                    return aClass;
+                }
+                for (final Class<?> anInterface : getAllInterfaces(aClass)) {
+                    if (anInterface.getDeclaredAnnotation(annotationType) == annotation) {
+                        return anInterface;
+                    }
+                }
+            }
+        }
+
+        return annotated;
+    }
+
+
+    @Nullable
+    private Method findDeclaringMethod(
+            @Nonnull final Class<?> aClass,
+            @Nonnull final Method annotatedMethod,
+            @Nonnull final Annotation annotation) {
+        final List<Method> sameNamedMethods = getDeclaredMethodsByName(aClass).get(annotatedMethod.getName());
+        if (sameNamedMethods != null) {
+            for (final Method method : sameNamedMethods) {
+                if (Arrays.equals(method.getParameterTypes(), annotatedMethod.getParameterTypes())
+                        && method.getDeclaredAnnotation(annotation.annotationType()) == annotation) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * @return true if all given types are found
+     */
+    private boolean addAnnotations(
+            @Nonnull final Map<Class<? extends Annotation>, Annotation> foundAnnotations,
+            @Nonnull final AnnotatedElement annotatedElement,
+            @Nonnull final Collection<Class<? extends Annotation>> annotationTypes) {
+        for (final Class<? extends Annotation> annotationType : annotationTypes) {
+            if (!foundAnnotations.containsKey(annotationType)) {
+                final Annotation annotation = findAnnotation(annotatedElement, annotationType, false);
+                if (annotation != null) {
+                    foundAnnotations.put(annotationType, annotation);
+                }
+            }
+        }
+        return foundAnnotations.size() == annotationTypes.size();
+    }
+
+
+    /**
+     * Looks the type up by identity first, then by name, as types of other class loaders only match by name
+     */
+    @Nullable
+    static Annotation findAnnotation(
+            @Nonnull final AnnotatedElement annotatedElement,
+            @Nonnull final Class<? extends Annotation> annotationType,
+            final boolean declaredOnly) {
+        final Annotation annotation = declaredOnly
+                ? annotatedElement.getDeclaredAnnotation(annotationType)
+                : annotatedElement.getAnnotation(annotationType);
+        if (annotation != null) {
+            return annotation;
+        }
+
+        final Annotation[] candidates = declaredOnly
+                ? annotatedElement.getDeclaredAnnotations()
+                : annotatedElement.getAnnotations();
+        for (final Annotation candidate : candidates) {
+            if (candidate.annotationType().getName().equals(annotationType.getName())) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * @return true if all given types are found
+     */
+    private boolean addAnnotationsOfSameMethods(
+            @Nonnull final Map<Class<? extends Annotation>, Annotation> foundAnnotations,
+            @Nonnull final Class<?> aClass,
+            @Nonnull final Method annotatedMethod,
+            @Nonnull final Collection<Class<? extends Annotation>> annotationTypes) {
+        final List<Method> sameNamedMethods = getDeclaredMethodsByName(aClass).get(annotatedMethod.getName());
+        if (sameNamedMethods != null) {
+            for (final Method method : sameNamedMethods) {
+                if (Arrays.equals(method.getParameterTypes(), annotatedMethod.getParameterTypes())
+                        && addAnnotations(foundAnnotations, method, annotationTypes)) {
+                    return true;
+                }
+            }
+        }
+        return foundAnnotations.size() == annotationTypes.size();
+    }
+
+
+    private void addExecutable(
+            @Nonnull final List<Object> annotatedElements,
+            @Nonnull final Executable executable) {
+        if (executable.isSynthetic()) {
+            return;
+        }
+
+        annotatedElements.add(executable);
+        annotatedElements.addAll(Arrays.asList(executable.getParameters()));
+    }
+
+
+    private void addAnnotationsOfSameMethods(
+            @Nonnull final Collection<Annotation> allAnnotations,
+            @Nonnull final Class<?> aClass,
+            @Nonnull final Method annotatedMethod) {
+        final List<Method> sameNamedMethods = getDeclaredMethodsByName(aClass).get(annotatedMethod.getName());
+        if (sameNamedMethods == null) {
+            return;
+        }
+
+        for (final Method method : sameNamedMethods) {
+            if (Arrays.equals(method.getParameterTypes(), annotatedMethod.getParameterTypes())) {
+                allAnnotations.addAll(Arrays.asList(method.getAnnotations()));
+            }
+        }
+    }
+
+
+    @Nonnull
+    private List<Class<?>> getClassWithSuperclasses(
+            @Nonnull final Class<?> aClass) {
+        return superclasses.computeIfAbsent(aClass, key -> {
+            final List<Class<?>> allClasses = new ArrayList<>();
+            allClasses.add(key);
+            allClasses.addAll(ClassUtils.getAllSuperclasses(key));
+            return allClasses;
+        });
+    }
+
+
+    @Nonnull
+    private List<Class<?>> getAllInterfaces(
+            @Nonnull final Class<?> aClass) {
+        return interfaces.computeIfAbsent(aClass, ClassUtils::getAllInterfaces);
+    }
+
+
+    @Nonnull
+    private Map<String, List<Method>> getDeclaredMethodsByName(
+            @Nonnull final Class<?> aClass) {
+        return declaredMethodsByName.computeIfAbsent(aClass, key -> {
+            final Map<String, List<Method>> methodsByName = new LinkedHashMap<>();
+            for (final Method method : key.getDeclaredMethods()) {
+                methodsByName.computeIfAbsent(method.getName(), name -> new ArrayList<>()).add(method);
+            }
+            return methodsByName;
+        });
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Times measured by {@link ParallelValidation} for one set of rules
+ * <br> - kept by the rules, so all ParallelValidations of them schedule by the same measurements, e.g. all modules
+ * of a build
+ * <br> - keyed by Class name, so the measured Classes are not kept
+ */
+final class ValidationCosts {
+
+    // nanoseconds per Class name measured in earlier runs
+    final Map<String, Long> recordedCosts = new ConcurrentHashMap<>();
+    // nanoseconds per unit of estimated cost, calibrated by earlier runs
+    private volatile double nanosPerCostUnit;
+
+
+    void record(
+            @Nonnull final String className,
+            final long nanos) {
+        recordedCosts.put(className, nanos);
+    }
+
+
+    void calibrate(
+            final long totalNanos,
+            final double totalCostUnits) {
+        if (totalCostUnits > 0) {
+            nanosPerCostUnit = totalNanos / totalCostUnits;
+        }
+    }
+
+
+    /**
+     * @return the time the Class took in an earlier run, otherwise its structural cost calibrated by earlier runs
+     */
+    double estimate(
+            @Nonnull final String className,
+            final double structuralCost) {
+        final Long recordedCost = recordedCosts.get(className);
+        if (recordedCost != null) {
+            return recordedCost;
+        }
+        return nanosPerCostUnit > 0 ? structuralCost * nanosPerCostUnit : structuralCost;
+    }
+}
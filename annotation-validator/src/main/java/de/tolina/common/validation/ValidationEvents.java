@@ -0,0 +1,89 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+
+
+/**
+ * Reports validated elements and validation phases to Java Flight Recorder.
+ * <br> This is the Java 8 variant which does nothing, the multi release jar contains a variant for Java 11 and
+ * above in <code>META-INF/versions/11</code> which commits JFR events while a recording is running.
+ */
+final class ValidationEvents {
+
+    private static final Span NOOP = () -> {
+        // nothing recorded
+    };
+
+
+    private ValidationEvents() {
+        // only static methods
+    }
+
+
+    /**
+     * Phases of the validation of a single element
+     */
+    enum Phase {
+        HIERARCHY_RESOLUTION, ATTRIBUTE_READ, ALIAS_RESOLUTION, VIOLATION_CREATION
+    }
+
+
+    /**
+     * Measures the time between its creation and {@link #close()}
+     */
+    interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+
+    /**
+     * Starts measuring the validation of an element
+     *
+     * @param annotated the validated element
+     * @param validationMode the current {@link ValidationMode}
+     * @return the Span to be closed after validation
+     */
+    @Nonnull
+    static Span element(
+            @Nonnull final Object annotated,
+            @Nonnull final ValidationMode validationMode) {
+        return NOOP;
+    }
+
+
+    /**
+     * Starts measuring a phase of the validation of an element
+     *
+     * @param phase the measured phase
+     * @param annotated the validated element
+     * @param annotationType the Annotation type the phase works on, if any
+     * @param validationMode the current {@link ValidationMode}
+     * @return the Span to be closed after the phase
+     */
+    @Nonnull
+    static Span phase(
+            @Nonnull final Phase phase,
+            @Nonnull final Object annotated,
+            @Nullable final Class<? extends Annotation> annotationType,
+            @Nonnull final ValidationMode validationMode) {
+        return NOOP;
+    }
+}
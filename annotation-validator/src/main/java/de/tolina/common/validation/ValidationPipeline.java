@@ -0,0 +1,185 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.lang.reflect.AnnotatedElement;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+
+/**
+ * Streams elements through the validation without collecting them first
+ * <br> - the calling thread takes elements from a source, e.g. an Iterator or the Classes of class path entries
+ * <br> - a bounded number of threads validates them
+ * <br> - results are passed to a sink one after another, so the sink needs no synchronization
+ * <br> - the source is only read while fewer than the buffer size elements wait for validation or their sink, so
+ * memory stays flat however many elements there are
+ */
+public final class ValidationPipeline {
+
+    private final AnnotationValidation validation;
+    private int parallelism;
+    private int bufferSize;
+    private boolean deep;
+
+
+    ValidationPipeline(
+            @Nonnull final AnnotationValidation validation) {
+        this.validation = validation;
+        parallelism = Runtime.getRuntime().availableProcessors();
+        bufferSize = 4 * parallelism;
+    }
+
+
+    /**
+     * @param threadCount number of threads validating in parallel, defaults to the number of available processors
+     * @return the ValidationPipeline
+     */
+    @Nonnull
+    public ValidationPipeline parallelism(
+            final int threadCount) {
+        parallelism = threadCount;
+        return this;
+    }
+
+
+    /**
+     * @param maximumElements number of elements taken from the source but not yet passed to the sink, defaults to
+     * four times the number of available processors
+     * @return the ValidationPipeline
+     */
+    @Nonnull
+    public ValidationPipeline bufferSize(
+            final int maximumElements) {
+        bufferSize = maximumElements;
+        return this;
+    }
+
+
+    /**
+     * Validates all declared members of Classes as well, like {@link AnnotationValidation#forClassDeep(Class)}
+     *
+     * @return the ValidationPipeline
+     */
+    @Nonnull
+    public ValidationPipeline deep() {
+        deep = true;
+        return this;
+    }
+
+
+    /**
+     * Validates the elements of the given source
+     *
+     * @param elements Classes, Methods, Fields, Constructors or Parameters, read by the calling thread only
+     * @param sink receives the result of every validated element
+     * @return the number of validated elements
+     * @throws InterruptedException if interrupted while waiting for the validation
+     */
+    public long run(
+            @Nonnull final Iterator<? extends AnnotatedElement> elements,
+            @Nonnull final Consumer<ValidationResult> sink) throws InterruptedException {
+        final TypeHierarchy typeHierarchy = new TypeHierarchy();
+        return run(elements, element -> element instanceof Class && deep
+                ? validation.validateClassDeep((Class<?>) element, typeHierarchy)
+                : Collections.singletonList(validation.validateElement(element, typeHierarchy)), sink);
+    }
+
+
+    /**
+     * Validates the Classes of the given class path entries, which are loaded by the validating threads
+     *
+     * @param classLoader loads the Classes, e.g. a class loader for the entries and their dependencies
+     * @param sink receives the result of every validated element
+     * @param classPathEntries directories or jar files whose Classes are to be validated
+     * @return the number of validated elements
+     * @throws IOException if a class path entry could not be read
+     * @throws InterruptedException if interrupted while waiting for the validation
+     */
+    public long run(
+            @Nonnull final ClassLoader classLoader,
+            @Nonnull final Consumer<ValidationResult> sink,
+            @Nonnull final Path... classPathEntries) throws IOException, InterruptedException {
+        final List<String> classNames = new ArrayList<>();
+        for (final Path classPathEntry : classPathEntries) {
+            classNames.addAll(ClassPathScanner.getClassNames(classPathEntry));
+        }
+
+        final TypeHierarchy typeHierarchy = new TypeHierarchy();
+        return run(classNames.iterator(), className ->
+                ParallelValidation.validateClass(validation, typeHierarchy, classLoader, className, deep), sink);
+    }
+
+
+    private <T> long run(
+            @Nonnull final Iterator<? extends T> elements,
+            @Nonnull final Function<T, List<ValidationResult>> validator,
+            @Nonnull final Consumer<ValidationResult> sink) throws InterruptedException {
+        final int permits = Math.max(1, bufferSize);
+        final Semaphore buffer = new Semaphore(permits);
+        final Object sinkLock = new Object();
+        final AtomicLong validatedElements = new AtomicLong();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            while (failure.get() == null && elements.hasNext()) {
+                // backpressure: the source is only read if there is room in the buffer
+                buffer.acquire();
+                final T element = elements.next();
+                executor.execute(() -> {
+                    try {
+                        final List<ValidationResult> results = validator.apply(element);
+                        synchronized (sinkLock) {
+                            results.forEach(sink);
+                        }
+                        validatedElements.addAndGet(results.size());
+                    } catch (final Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        buffer.release();
+                    }
+                });
+            }
+
+            // all permits are back when all elements have reached the sink
+            buffer.acquire(permits);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final Throwable e = failure.get();
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return validatedElements.get();
+    }
+}
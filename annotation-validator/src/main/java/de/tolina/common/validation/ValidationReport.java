@@ -0,0 +1,129 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+
+/**
+ * Collects the failed {@link ValidationResult}s of a validation of many elements
+ */
+public final class ValidationReport {
+
+    private final int validatedElements;
+    private final List<ValidationResult> failures;
+
+
+    ValidationReport(
+            final int validatedElements,
+            @Nonnull final List<ValidationResult> failures) {
+        this.validatedElements = validatedElements;
+        this.failures = Collections.unmodifiableList(new ArrayList<>(failures));
+    }
+
+
+    /**
+     * Combines the given reports, e.g. of several partitions, into one
+     *
+     * @param reports the reports to be merged
+     * @return a report with all validated elements and failures of the given reports
+     */
+    @Nonnull
+    static ValidationReport merge(
+            @Nonnull final Collection<ValidationReport> reports) {
+        int validatedElements = 0;
+        final List<ValidationResult> failures = new ArrayList<>();
+        for (final ValidationReport report : reports) {
+            validatedElements += report.validatedElements;
+            failures.addAll(report.failures);
+        }
+        return new ValidationReport(validatedElements, failures);
+    }
+
+
+    /**
+     * @return the number of validated elements
+     */
+    public int getValidatedElements() {
+        return validatedElements;
+    }
+
+
+    /**
+     * @return the results of all elements that did not pass validation
+     */
+    @Nonnull
+    public List<ValidationResult> getFailures() {
+        return failures;
+    }
+
+
+    public boolean isValid() {
+        return failures.isEmpty();
+    }
+
+
+    /**
+     * Fails with the errors of all failed elements
+     * <br> Errors of an Annotation inherited from a supertype are reported once for all inheriting elements.
+     */
+    public void assertValid() {
+        if (isValid()) {
+            return;
+        }
+
+        final List<String> errors = new ArrayList<>();
+        // position of the first report, first element and number of elements per inherited error
+        final Map<String, Integer> inheritedErrorPositions = new HashMap<>();
+        final Map<String, String> firstInheritingElements = new HashMap<>();
+        final Map<String, Integer> inheritingElements = new HashMap<>();
+        for (final ValidationResult failure : failures) {
+            for (final String error : failure.getErrors()) {
+                if (!failure.getInheritedErrors().contains(error)) {
+                    errors.add(format("%s: %s", failure.getElement(), error));
+                } else if (inheritedErrorPositions.putIfAbsent(error, errors.size()) == null) {
+                    firstInheritingElements.put(error, failure.getElement());
+                    inheritingElements.put(error, 1);
+                    errors.add(format("%s: %s", failure.getElement(), error));
+                } else {
+                    inheritingElements.merge(error, 1, Integer::sum);
+                }
+            }
+        }
+
+        inheritingElements.forEach((error, elements) -> {
+            if (elements > 1) {
+                errors.set(inheritedErrorPositions.get(error), format("%s and %d more elements: %s",
+                        firstInheritingElements.get(error), elements - 1, error));
+            }
+        });
+        throw new SoftAssertionErrorWithObjectDetails(errors, this);
+    }
+
+
+    @Override
+    public String toString() {
+        return format("%d elements with %d failures", validatedElements, failures.size());
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * The outcome of the validation of a single Class, Method, Field, Constructor or Parameter
+ */
+public final class ValidationResult {
+
+    private final String element;
+    private final List<String> errors;
+    private final List<String> inheritedErrors;
+
+
+    ValidationResult(
+            @Nonnull final String element,
+            @Nonnull final List<String> errors) {
+        this(element, errors, Collections.emptyList());
+    }
+
+
+    ValidationResult(
+            @Nonnull final String element,
+            @Nonnull final List<String> errors,
+            @Nonnull final List<String> inheritedErrors) {
+        this.element = element;
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+        this.inheritedErrors = Collections.unmodifiableList(new ArrayList<>(inheritedErrors));
+    }
+
+
+    /**
+     * @return description of the validated element
+     */
+    @Nonnull
+    public String getElement() {
+        return element;
+    }
+
+
+    /**
+     * @return the messages of all failed assertions, empty if the element is valid
+     */
+    @Nonnull
+    public List<String> getErrors() {
+        return errors;
+    }
+
+
+    /**
+     * @return those of the errors which are about Annotations inherited from a supertype, reported alike by all its
+     * subtypes
+     */
+    @Nonnull
+    public List<String> getInheritedErrors() {
+        return inheritedErrors;
+    }
+
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+
+    @Override
+    public String toString() {
+        return element + (isValid() ? " is valid" : " " + errors);
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Checks the value of an Annotation parameter, see {@link AnnotationDefinition#param(String, ValueMatcher)}
+ * <br> Implementations are created once per definition and may be called concurrently, so any preparation of the
+ * expected values belongs to their construction. {@link ValueMatchers} provides the common ones.
+ */
+public interface ValueMatcher {
+
+    /**
+     * @param actualValue the value returned by the Annotation's Method, arrays are passed as returned
+     * @return true if the value is accepted
+     */
+    boolean matches(@Nullable Object actualValue);
+
+
+    /**
+     * @return the expected value for error messages, e.g. <code>value "x"</code>
+     */
+    @Nonnull
+    String describe();
+
+
+    /**
+     * Matchers whose description is not complete, like Predicates, cannot identify their rules across JVMs, see
+     * {@link AnnotationValidation#warmCache(java.nio.file.Path, Iterable, String)}
+     *
+     * @return true if two matchers with the same description accept the same values
+     */
+    default boolean isDescribedCompletely() {
+        return false;
+    }
+}
@@ -0,0 +1,328 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static de.tolina.common.validation.Violations.render;
+import static java.lang.String.format;
+
+
+/**
+ * Factories for {@link ValueMatcher}s, all expected values are prepared once when the matcher is created
+ * <br> Matchers for several values accept arrays of any component type, matchers for single values check every
+ * element of an array.
+ */
+public final class ValueMatchers {
+
+    private ValueMatchers() {
+        // factory methods only
+    }
+
+
+    /**
+     * Accepts exactly the given value or, for array parameters, all and only the given values in the given order.
+     * <br> This is what {@link AnnotationDefinition#param(String, Object...)} uses.
+     *
+     * @param values the expected value or values
+     * @return the matcher
+     */
+    @Nonnull
+    public static ValueMatcher equalTo(
+            @Nullable final Object... values) {
+        if (values != null && Arrays.stream(values).anyMatch(AnnotationDefinition.class::isInstance)) {
+            return equalToNested(values);
+        }
+
+        return new ValueMatcher() {
+            @Override
+            public boolean matches(@Nullable final Object actualValue) {
+                if (Object[].class.isInstance(actualValue)) {
+                    return Arrays.deepEquals((Object[]) actualValue, values);
+                }
+                return values != null && values.length > 0 && Objects.deepEquals(actualValue, values[0]);
+            }
+
+
+            @Nonnull
+            @Override
+            public String describe() {
+                if (values != null && values.length == 1) {
+                    return "value " + render(values[0]);
+                }
+                return "values " + render(values) + " in this order";
+            }
+
+
+            @Override
+            public boolean isDescribedCompletely() {
+                return true;
+            }
+        };
+    }
+
+
+    /**
+     * Like {@link #equalTo(Object...)}, but nested {@link AnnotationDefinition}s are compared structurally with
+     * Annotation values
+     */
+    @Nonnull
+    private static ValueMatcher equalToNested(
+            @Nonnull final Object[] values) {
+        final List<ValueMatcher> elementMatchers = new ArrayList<>(values.length);
+        for (final Object value : values) {
+            elementMatchers.add(value instanceof AnnotationDefinition
+                    ? new AnnotationDefinitionMatcher((AnnotationDefinition) value)
+                    : equalTo(value));
+        }
+        final String description = values.length == 1
+                ? elementMatchers.get(0).describe()
+                : "values " + render(values) + " in this order";
+
+        final boolean describedCompletely = elementMatchers.stream().allMatch(ValueMatcher::isDescribedCompletely);
+
+        return describedAs(description, describedCompletely, actualValue -> {
+            if (!Object[].class.isInstance(actualValue)) {
+                return elementMatchers.size() == 1 && elementMatchers.get(0).matches(actualValue);
+            }
+
+            final Object[] actualValues = (Object[]) actualValue;
+            if (actualValues.length != elementMatchers.size()) {
+                return false;
+            }
+            for (int i = 0; i < actualValues.length; i++) {
+                if (!elementMatchers.get(i).matches(actualValues[i])) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+
+    /**
+     * Accepts arrays with all and only the given values in any order, each value as often as given
+     *
+     * @param values the expected values
+     * @return the matcher
+     */
+    @Nonnull
+    public static ValueMatcher inAnyOrder(
+            @Nonnull final Object... values) {
+        final Map<Object, Integer> expectedCounts = countsOf(Arrays.asList(values));
+        final String description = "values " + render(values) + " in any order";
+
+        return describedAs(description, actualValue -> {
+            final List<Object> actualElements = elementsOf(actualValue);
+            return actualElements.size() == values.length && countsOf(actualElements).equals(expectedCounts);
+        });
+    }
+
+
+    /**
+     * Accepts arrays whose values are all contained in the given values
+     *
+     * @param values the allowed values
+     * @return the matcher
+     */
+    @Nonnull
+    public static ValueMatcher subsetOf(
+            @Nonnull final Object... values) {
+        final Set<Object> allowedValues = new HashSet<>(Arrays.asList(values));
+        final String description = "values out of " + render(values);
+
+        return describedAs(description, actualValue -> actualValue != null
+                && allowedValues.containsAll(elementsOf(actualValue)));
+    }
+
+
+    /**
+     * Accepts arrays containing at least all the given values
+     *
+     * @param values the required values
+     * @return the matcher
+     */
+    @Nonnull
+    public static ValueMatcher supersetOf(
+            @Nonnull final Object... values) {
+        final List<Object> requiredValues = Arrays.asList(values);
+        final String description = "values containing " + render(values);
+
+        return describedAs(description, actualValue -> actualValue != null
+                && new HashSet<>(elementsOf(actualValue)).containsAll(requiredValues));
+    }
+
+
+    /**
+     * Accepts Strings matching the given regular expression completely
+     *
+     * @param regex the regular expression, compiled once
+     * @return the matcher
+     */
+    @Nonnull
+    public static ValueMatcher matching(
+            @Nonnull final String regex) {
+        return matching(Pattern.compile(regex));
+    }
+
+
+    /**
+     * Accepts Strings matching the given Pattern completely
+     *
+     * @param pattern the Pattern
+     * @return the matcher
+     */
+    @Nonnull
+    public static ValueMatcher matching(
+            @Nonnull final Pattern pattern) {
+        return everyElement(format("value matching %s", render(pattern.pattern())), element ->
+                element instanceof CharSequence && pattern.matcher((CharSequence) element).matches());
+    }
+
+
+    /**
+     * Accepts values between the given bounds, both inclusive
+     *
+     * @param min the lower bound
+     * @param max the upper bound, of the same type as the lower bound
+     * @param <T> the type of the bounds, e.g. Integer for <code>int</code> parameters
+     * @return the matcher
+     */
+    @Nonnull
+    public static <T extends Comparable<? super T>> ValueMatcher between(
+            @Nonnull final T min,
+            @Nonnull final T max) {
+        final Class<?> type = min.getClass();
+        return everyElement(format("value between %s and %s", render(min), render(max)), element -> {
+            if (!type.isInstance(element)) {
+                return false;
+            }
+            @SuppressWarnings("unchecked") final T value = (T) element;
+            return min.compareTo(value) <= 0 && max.compareTo(value) >= 0;
+        });
+    }
+
+
+    /**
+     * Accepts values fulfilling the given Predicate
+     * <br> The description cannot tell Predicates apart, so rules using them need a version to be kept by
+     * {@link AnnotationValidation#warmCache(java.nio.file.Path, Iterable, String)}.
+     *
+     * @param description the expected value for error messages
+     * @param predicate receives the value as returned by the Annotation's Method
+     * @return the matcher
+     */
+    @Nonnull
+    public static ValueMatcher satisfying(
+            @Nonnull final String description,
+            @Nonnull final Predicate<Object> predicate) {
+        return describedAs(description, false, predicate);
+    }
+
+
+    @Nonnull
+    private static ValueMatcher everyElement(
+            @Nonnull final String description,
+            @Nonnull final Predicate<Object> elementPredicate) {
+        return describedAs(description, actualValue -> {
+            if (actualValue == null) {
+                return false;
+            }
+            for (final Object element : elementsOf(actualValue)) {
+                if (!elementPredicate.test(element)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+
+    @Nonnull
+    private static ValueMatcher describedAs(
+            @Nonnull final String description,
+            @Nonnull final Predicate<Object> predicate) {
+        return describedAs(description, true, predicate);
+    }
+
+
+    @Nonnull
+    private static ValueMatcher describedAs(
+            @Nonnull final String description,
+            final boolean describedCompletely,
+            @Nonnull final Predicate<Object> predicate) {
+        return new ValueMatcher() {
+            @Override
+            public boolean matches(@Nullable final Object actualValue) {
+                return predicate.test(actualValue);
+            }
+
+
+            @Nonnull
+            @Override
+            public String describe() {
+                return description;
+            }
+
+
+            @Override
+            public boolean isDescribedCompletely() {
+                return describedCompletely;
+            }
+        };
+    }
+
+
+    /**
+     * @return the elements of an array of any component type, other values as single element
+     */
+    @Nonnull
+    private static List<Object> elementsOf(
+            @Nullable final Object value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        if (Object[].class.isInstance(value)) {
+            return Arrays.asList((Object[]) value);
+        }
+        if (!value.getClass().isArray()) {
+            return Collections.singletonList(value);
+        }
+
+        final int length = Array.getLength(value);
+        final List<Object> elements = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            elements.add(Array.get(value, i));
+        }
+        return elements;
+    }
+
+
+    @Nonnull
+    private static Map<Object, Integer> countsOf(
+            @Nonnull final Collection<Object> values) {
+        final Map<Object, Integer> counts = new HashMap<>(values.size() * 2);
+        for (final Object value : values) {
+            counts.merge(value, 1, Integer::sum);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import de.tolina.common.validation.ValidationEvents.Span;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.tolina.common.validation.ValidationEvents.Phase.VIOLATION_CREATION;
+import static java.lang.String.format;
+
+
+/**
+ * Collects the messages of all failed checks of a single element, so all of them can be reported at once
+ */
+final class Violations {
+
+    // appended to the messages of Annotations inherited from a supertype
+    private static final String DECLARED_ON_FORMAT = "%s (declared on %s)";
+
+    private final Object annotatedObject;
+    private final ValidationMode validationMode;
+    private final List<String> messages = new ArrayList<>();
+    private final List<String> inheritedMessages = new ArrayList<>();
+
+
+    Violations(
+            @Nonnull final Object annotatedObject,
+            @Nonnull final ValidationMode validationMode) {
+        this.annotatedObject = annotatedObject;
+        this.validationMode = validationMode;
+    }
+
+
+    /**
+     * Records a failed check
+     *
+     * @param annotationType the checked Annotation type, if any
+     * @param messageFormat format of the message, see {@link String#format(String, Object...)}
+     * @param arguments arguments of the message
+     */
+    void add(
+            @Nullable final Class<? extends Annotation> annotationType,
+            @Nonnull final String messageFormat,
+            @Nonnull final Object... arguments) {
+        final Span span = ValidationEvents.phase(VIOLATION_CREATION, annotatedObject, annotationType, validationMode);
+        try {
+            messages.add(format(messageFormat, arguments));
+        } finally {
+            span.close();
+        }
+    }
+
+
+    /**
+     * Records a failed check of an Annotation inherited from a supertype, all subtypes report it alike
+     *
+     * @param annotationType the checked Annotation type
+     * @param message the message of the failed check
+     * @param declaringElement signature of the supertype or Method declaring the Annotation
+     */
+    void addInherited(
+            @Nonnull final Class<? extends Annotation> annotationType,
+            @Nonnull final String message,
+            @Nonnull final String declaringElement) {
+        add(annotationType, DECLARED_ON_FORMAT, message, declaringElement);
+        inheritedMessages.add(messages.get(messages.size() - 1));
+    }
+
+
+    /**
+     * Renders a value for a message, Strings are quoted and arrays show their elements
+     */
+    @Nonnull
+    static String render(
+            @Nullable final Object value) {
+        return value == null ? "null" : AnnotationLayout.canonicalValueOf(value);
+    }
+
+
+    @Nonnull
+    Object getAnnotatedObject() {
+        return annotatedObject;
+    }
+
+
+    @Nonnull
+    List<String> getMessages() {
+        return messages;
+    }
+
+
+    /**
+     * @return those of the messages which are about Annotations inherited from a supertype
+     */
+    @Nonnull
+    List<String> getInheritedMessages() {
+        return inheritedMessages;
+    }
+}
@@ -0,0 +1,438 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * Verdicts of one rule set per element signature, kept in a file across JVMs
+ * <br> - the file is only used while the class path is unchanged, identified by the names, sizes and modification
+ * times of all its files including the entries of jar manifests
+ * <br> - the file is mapped into memory and its checksum verified before any verdict is trusted
+ * <br> - verdicts are replaced as a whole when the rules change, the file is written to a temporary file and moved
+ * <br> - only Classes loaded from the hashed entries are covered, the verdicts of other Classes are not kept
+ */
+final class WarmCache {
+
+    private static final int MAGIC = 0x414E4E57;
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + 3 * Long.BYTES;
+    private static final int MAXIMUM_VERDICTS = 100_000;
+
+    // saved by one shutdown hook, without keeping the caches of unused validations from being garbage collected
+    private static final Set<WarmCache> SAVED_ON_EXIT = Collections.newSetFromMap(new WeakHashMap<>());
+    private static boolean savingOnExit;
+
+    private final Path cacheFile;
+    private final long classPathKey;
+    private final Set<Path> classPathEntries = new HashSet<>();
+    private final WeakIdentityCache<Class<?>, Boolean> coveredClasses = new WeakIdentityCache<>();
+    private final Map<String, ElementVerdict> verdicts = new ConcurrentHashMap<>();
+    // rules the current verdicts belong to, null until the file has been read
+    private volatile Long rulesKey;
+    private volatile boolean modified;
+
+
+    WarmCache(
+            @Nonnull final Path cacheFile,
+            @Nonnull final Iterable<Path> classPathEntries) throws IOException {
+        this.cacheFile = cacheFile;
+        classPathKey = classPathKeyOf(classPathEntries, this.classPathEntries);
+    }
+
+
+    /**
+     * Saves the given cache when the JVM exits, failures are reported to <code>System.err</code>
+     *
+     * @param cache the cache, saved only while it is referenced elsewhere
+     */
+    static void saveOnExit(
+            @Nonnull final WarmCache cache) {
+        synchronized (SAVED_ON_EXIT) {
+            SAVED_ON_EXIT.add(cache);
+            if (!savingOnExit) {
+                savingOnExit = true;
+                Runtime.getRuntime().addShutdownHook(new Thread(WarmCache::saveAll, "annotation-validation-warm-cache"));
+            }
+        }
+    }
+
+
+    /**
+     * @return the entries of the class path of this JVM
+     */
+    @Nonnull
+    static List<Path> getSystemClassPath() {
+        return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entry -> !entry.isEmpty())
+                .map(Paths::get)
+                .collect(Collectors.toList());
+    }
+
+
+    /**
+     * Hashes the names, sizes and modification times of all files of the given entries, jar files with the entries
+     * of their manifest class path, as used by forked test JVMs
+     *
+     * @param classPathEntries jar files or class directories
+     * @return the key of the given class path
+     * @throws IOException if a class directory could not be walked
+     */
+    static long classPathKeyOf(
+            @Nonnull final Iterable<Path> classPathEntries) throws IOException {
+        return classPathKeyOf(classPathEntries, new HashSet<>());
+    }
+
+
+    /**
+     * @param type a validated Class or the declaring Class of a validated member
+     * @return true if the Class was loaded from one of the hashed entries, so its verdicts depend only on them
+     */
+    boolean covers(
+            @Nonnull final Class<?> type) {
+        final Boolean knownCoverage = coveredClasses.get(type);
+        if (knownCoverage != null) {
+            return knownCoverage;
+        }
+
+        final Path codeSource = codeSourceOf(type);
+        final boolean covered = codeSource != null && classPathEntries.contains(codeSource);
+        coveredClasses.put(type, covered);
+        return covered;
+    }
+
+
+    /**
+     * @param rules key of the rules that computed the verdicts
+     * @param signature signature of the validated element
+     * @return the remembered verdict, null if the element has no remembered verdict for these rules
+     */
+    @Nullable
+    ElementVerdict get(
+            final long rules,
+            @Nonnull final String signature) {
+        final Long currentRules = rulesKey;
+        if (currentRules == null || currentRules != rules) {
+            load(rules);
+        }
+        return verdicts.get(signature);
+    }
+
+
+    /**
+     * Remembers a verdict, verdicts of rules other than the most recently loaded ones are dropped
+     *
+     * @param rules key of the rules that computed the verdict
+     * @param signature signature of the validated element
+     * @param verdict the verdict of the element
+     */
+    void put(
+            final long rules,
+            @Nonnull final String signature,
+            @Nonnull final ElementVerdict verdict) {
+        final Long currentRules = rulesKey;
+        if (currentRules != null && currentRules == rules && verdicts.size() < MAXIMUM_VERDICTS
+                && verdicts.putIfAbsent(signature, verdict) == null) {
+            modified = true;
+        }
+    }
+
+
+    int size() {
+        return verdicts.size();
+    }
+
+
+    /**
+     * Writes all verdicts if any have been added since the file was read
+     *
+     * @throws IOException if the file could not be written
+     */
+    synchronized void save() throws IOException {
+        final Long currentRules = rulesKey;
+        if (!modified || currentRules == null) {
+            return;
+        }
+
+        final Map<String, Integer> stringTable = new LinkedHashMap<>();
+        final Map<String, ElementVerdict> entries = new TreeMap<>(verdicts);
+        entries.forEach((signature, verdict) -> {
+            stringTable.putIfAbsent(signature, stringTable.size());
+            verdict.getErrors().forEach(error -> stringTable.putIfAbsent(error, stringTable.size()));
+        });
+
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(body)) {
+            out.writeInt(stringTable.size());
+            for (final String string : stringTable.keySet()) {
+                final byte[] encoded = string.getBytes(UTF_8);
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+
+            out.writeInt(entries.size());
+            for (final Map.Entry<String, ElementVerdict> entry : entries.entrySet()) {
+                out.writeInt(stringTable.get(entry.getKey()));
+                writeStrings(out, entry.getValue().getErrors(), stringTable);
+                // inherited errors are some of the errors, so they are in the table as well
+                writeStrings(out, entry.getValue().getInheritedErrors(), stringTable);
+            }
+        }
+
+        final CRC32 checksum = new CRC32();
+        checksum.update(body.toByteArray());
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + body.size());
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(classPathKey);
+            out.writeLong(currentRules);
+            out.writeLong(checksum.getValue());
+            body.writeTo(out);
+        }
+
+        // several JVMs may share the file, so readers must never see a partially written one
+        final Path directory = cacheFile.toAbsolutePath().getParent();
+        final Path temporaryFile = Files.createTempFile(directory, cacheFile.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporaryFile, bytes.toByteArray());
+            try {
+                Files.move(temporaryFile, cacheFile, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        modified = false;
+    }
+
+
+    /**
+     * Replaces the verdicts with those of the file if it was written for this class path and the given rules
+     */
+    private synchronized void load(
+            final long rules) {
+        final Long currentRules = rulesKey;
+        if (currentRules != null && currentRules == rules) {
+            return;
+        }
+
+        verdicts.clear();
+        modified = false;
+        if (Files.isRegularFile(cacheFile)) {
+            try (final FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+                read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), rules);
+            } catch (final IOException | BufferUnderflowException | IndexOutOfBoundsException
+                    | IllegalArgumentException e) {
+                // an unreadable file is treated like a missing one and replaced on the next save
+                verdicts.clear();
+            }
+        }
+        rulesKey = rules;
+    }
+
+
+    private void read(
+            @Nonnull final ByteBuffer buffer,
+            final long rules) {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                || buffer.getLong() != classPathKey || buffer.getLong() != rules) {
+            return;
+        }
+
+        final long expectedChecksum = buffer.getLong();
+        final CRC32 checksum = new CRC32();
+        checksum.update(buffer.duplicate());
+        if (checksum.getValue() != expectedChecksum) {
+            return;
+        }
+
+        final String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            final byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, UTF_8);
+        }
+
+        final int entryCount = buffer.getInt();
+        for (int i = 0; i < entryCount; i++) {
+            final String signature = strings[buffer.getInt()];
+            final List<String> errors = readStrings(buffer, strings);
+            verdicts.put(signature, new ElementVerdict(errors, readStrings(buffer, strings)));
+        }
+    }
+
+
+    private static void writeStrings(
+            @Nonnull final DataOutputStream out,
+            @Nonnull final List<String> values,
+            @Nonnull final Map<String, Integer> stringTable) throws IOException {
+        out.writeInt(values.size());
+        for (final String value : values) {
+            out.writeInt(stringTable.get(value));
+        }
+    }
+
+
+    @Nonnull
+    private static List<String> readStrings(
+            @Nonnull final ByteBuffer buffer,
+            @Nonnull final String[] strings) {
+        final String[] values = new String[buffer.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = strings[buffer.getInt()];
+        }
+        return Arrays.asList(values);
+    }
+
+
+    private static long classPathKeyOf(
+            @Nonnull final Iterable<Path> classPathEntries,
+            @Nonnull final Set<Path> visited) throws IOException {
+        final LayoutFingerprint key = new LayoutFingerprint();
+        for (final Path classPathEntry : classPathEntries) {
+            addClassPathEntry(key, classPathEntry.toAbsolutePath().normalize(), visited);
+        }
+        return key.getValue();
+    }
+
+
+    @Nullable
+    private static Path codeSourceOf(
+            @Nonnull final Class<?> type) {
+        final CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return null;
+        }
+        try {
+            return Paths.get(codeSource.getLocation().toURI()).toAbsolutePath().normalize();
+        } catch (final URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+            // not loaded from a file, like generated Classes
+            return null;
+        }
+    }
+
+
+    private static void saveAll() {
+        final List<WarmCache> caches;
+        synchronized (SAVED_ON_EXIT) {
+            caches = new ArrayList<>(SAVED_ON_EXIT);
+        }
+        for (final WarmCache cache : caches) {
+            try {
+                cache.save();
+            } catch (final IOException e) {
+                // the next JVM validates without the verdicts, but should know why
+                System.err.println("Could not save warm cache " + cache.cacheFile + ": " + e);
+            }
+        }
+    }
+
+
+    private static void addClassPathEntry(
+            @Nonnull final LayoutFingerprint key,
+            @Nonnull final Path classPathEntry,
+            @Nonnull final Set<Path> visited) throws IOException {
+        if (!visited.add(classPathEntry)) {
+            return;
+        }
+
+        key.add(classPathEntry.toString());
+        if (Files.isDirectory(classPathEntry)) {
+            try (final Stream<Path> files = Files.walk(classPathEntry)) {
+                final List<Path> sortedFiles = files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                for (final Path file : sortedFiles) {
+                    addFile(key.add(classPathEntry.relativize(file).toString()), file);
+                }
+            }
+        } else if (Files.isRegularFile(classPathEntry)) {
+            addFile(key, classPathEntry);
+            for (final Path manifestEntry : getManifestClassPath(classPathEntry)) {
+                addClassPathEntry(key, manifestEntry, visited);
+            }
+        } else {
+            key.add("?");
+        }
+    }
+
+
+    private static void addFile(
+            @Nonnull final LayoutFingerprint key,
+            @Nonnull final Path file) throws IOException {
+        key.add(Long.toString(Files.size(file)))
+                .add(Long.toString(Files.getLastModifiedTime(file).toMillis()));
+    }
+
+
+    @Nonnull
+    private static List<Path> getManifestClassPath(
+            @Nonnull final Path jarFile) {
+        if (!jarFile.getFileName().toString().endsWith(".jar")) {
+            return Collections.emptyList();
+        }
+
+        final String classPath;
+        try (final JarFile jar = new JarFile(jarFile.toFile())) {
+            final Manifest manifest = jar.getManifest();
+            classPath = manifest == null ? null : manifest.getMainAttributes().getValue("Class-Path");
+        } catch (final IOException e) {
+            // not a readable jar, its size and modification time still identify it
+            return Collections.emptyList();
+        }
+        if (classPath == null) {
+            return Collections.emptyList();
+        }
+
+        final List<Path> entries = new ArrayList<>();
+        for (final String entry : classPath.trim().split("\\s+")) {
+            try {
+                entries.add(Paths.get(jarFile.getParent().toUri().resolve(entry)).normalize());
+            } catch (final IllegalArgumentException e) {
+                entries.add(jarFile.resolveSibling(entry).normalize());
+            }
+        }
+        return entries;
+    }
+}
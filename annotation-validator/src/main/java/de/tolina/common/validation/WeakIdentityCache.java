@@ -0,0 +1,107 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Remembers values per object identity without keeping the objects from being garbage collected
+ * <br> Unlike {@link java.util.WeakHashMap} keys are compared by identity, so objects with expensive or unusual
+ * <code>equals</code>, like Annotation proxies, can be keys. This class is thread safe.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+final class WeakIdentityCache<K, V> {
+
+    private final Map<IdentityKey<K>, V> values = new HashMap<>();
+    private final ReferenceQueue<K> collectedKeys = new ReferenceQueue<>();
+
+
+    @Nullable
+    synchronized V get(
+            @Nonnull final K key) {
+        expungeCollectedKeys();
+        return values.get(new IdentityKey<>(key, null));
+    }
+
+
+    synchronized void put(
+            @Nonnull final K key,
+            @Nonnull final V value) {
+        expungeCollectedKeys();
+        values.put(new IdentityKey<>(key, collectedKeys), value);
+    }
+
+
+    synchronized int size() {
+        expungeCollectedKeys();
+        return values.size();
+    }
+
+
+    synchronized void clear() {
+        values.clear();
+    }
+
+
+    private void expungeCollectedKeys() {
+        Reference<? extends K> collectedKey;
+        while ((collectedKey = collectedKeys.poll()) != null) {
+            values.remove(collectedKey);
+        }
+    }
+
+
+    private static final class IdentityKey<K> extends WeakReference<K> {
+
+        private final int hash;
+
+
+        private IdentityKey(
+                @Nonnull final K key,
+                @Nullable final ReferenceQueue<K> queue) {
+            super(key, queue);
+            hash = System.identityHashCode(key);
+        }
+
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof IdentityKey)) {
+                return false;
+            }
+            final Object key = get();
+            return key != null && key == ((IdentityKey<?>) other).get();
+        }
+
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation.assertj;
+
+import de.tolina.common.validation.AnnotationValidation;
+import de.tolina.common.validation.ValidationResult;
+import org.assertj.core.api.AbstractAssert;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.AnnotatedElement;
+
+
+/**
+ * AssertJ entry point for annotation validation
+ * <br> The core engine does not depend on AssertJ, this adapter is only usable if AssertJ is on the class path.
+ * <br> Usable with {@link org.assertj.core.api.SoftAssertions} via
+ * <code>softly.proxy(AnnotationValidationAssert.class, AnnotatedElement.class, element)</code>.
+ */
+public class AnnotationValidationAssert extends AbstractAssert<AnnotationValidationAssert, AnnotatedElement> {
+
+    public AnnotationValidationAssert(
+            @Nullable final AnnotatedElement actual) {
+        super(actual, AnnotationValidationAssert.class);
+    }
+
+
+    /**
+     * @param annotatedElement a Class, a Method, a Field, a Constructor or a Parameter
+     * @return an assertion on the Annotations of the given element
+     */
+    @Nonnull
+    public static AnnotationValidationAssert assertThatAnnotationsOf(
+            @Nullable final AnnotatedElement annotatedElement) {
+        return new AnnotationValidationAssert(annotatedElement);
+    }
+
+
+    /**
+     * Verifies that the Annotations of the actual element pass the given validation
+     *
+     * @param annotationValidation the configured validation
+     * @return this assertion
+     */
+    @Nonnull
+    public AnnotationValidationAssert conformTo(
+            @Nonnull final AnnotationValidation annotationValidation) {
+        isNotNull();
+
+        final ValidationResult result = annotationValidation.resultFor(actual);
+        if (!result.isValid()) {
+            failWithMessage("%nExpecting Annotations of%n  <%s>%nto conform, but:%n  %s", result.getElement(),
+                    String.join(String.format("%n  "), result.getErrors()));
+        }
+        return myself;
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the {@link AdaptiveOrder}
+ */
+public class AdaptiveOrderTest {
+
+    private final AdaptiveOrder<String> order = new AdaptiveOrder<>(Arrays.asList("first", "second", "third"));
+
+
+    @Test
+    public void testReorder_withoutStatistics() {
+        order.reorder();
+
+        assertThat(order.getOrder(), contains("first", "second", "third"));
+    }
+
+
+    @Test
+    public void testReorder_selectiveFirst() {
+        for (int i = 0; i < 1_000; i++) {
+            order.allPass(rule -> !"third".equals(rule));
+        }
+
+        order.reorder();
+
+        assertThat(order.getOrder().get(0), is("third"));
+    }
+
+
+    @Test
+    public void testAllPass_stopsAtFirstFailure() {
+        final List<String> evaluatedRules = new ArrayList<>();
+
+        assertFalse(order.allPass(rule -> evaluatedRules.add(rule) && !"second".equals(rule)));
+        assertThat(evaluatedRules, contains("first", "second"));
+
+        assertTrue(order.allPass(rule -> true));
+    }
+}
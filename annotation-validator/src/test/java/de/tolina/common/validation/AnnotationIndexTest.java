@@ -0,0 +1,72 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for the {@link AnnotationIndex} and {@link AnnotationQuery}
+ */
+public class AnnotationIndexTest {
+
+    private static final String ANNOTATED_TEST_CLASS = AnnotatedTestClass.class.getName();
+    private static final String DEEP_ANNOTATED_TEST_CLASS = DeepAnnotatedTestClass.class.getName();
+
+    private final AnnotationIndex index = AnnotationIndex.of(AnnotatedTestClass.class, DeepAnnotatedTestClass.class);
+
+
+    @Test
+    public void testQuery_values() {
+        assertThat(index.query().methods().with(TestAnnotation.class, "testparameter", "testvalue").getElements(),
+                contains(ANNOTATED_TEST_CLASS + "#methodWithAnnotations()"));
+        assertThat(index.query().with(TestAnnotation.class, "anotherTestParameter", "anotherTestValue").getElements(),
+                contains(ANNOTATED_TEST_CLASS + "#methodWithAnnotations()"));
+        assertThat(index.query().with(AnotherTestAnnotation.class, "value", TestEnum.TEST2).count(), is(1));
+        assertThat(index.query().with(TestAnnotation.class, "testparameter", "unknown").count(), is(0));
+    }
+
+
+    @Test
+    public void testQuery_ownValueOfOverride() {
+        final AnnotationIndex overridingIndex = AnnotationIndex.of(OverridingTestClass.class);
+
+        assertThat(overridingIndex.query().methods().with(TestAnnotation.class, "testparameter", "own")
+                .getElements(), contains(OverridingTestClass.class.getName() + "#overridden()"));
+        assertThat(overridingIndex.query().with(TestAnnotation.class, "testparameter", "interface").count(), is(0));
+    }
+
+
+    @Test
+    public void testQuery_withAndWithout() {
+        assertThat(index.query().with(TestAnnotation.class).without(AnotherTestAnnotation.class).fields()
+                .getElements(), containsInAnyOrder(ANNOTATED_TEST_CLASS + "#fieldWithAnnotations",
+                DEEP_ANNOTATED_TEST_CLASS + "#annotatedField"));
+        assertThat(index.query().classes().with(TestAnnotation.class).count(), is(2));
+        assertThat(index.query().parameters().with(TestAnnotation.class).inPackage("de.tolina").count(), is(2));
+    }
+
+
+    @Test
+    public void testQuery_inPackage() {
+        assertThat(index.query().inPackage("de.tolina").count(), is(index.size()));
+        assertThat(index.query().inPackage("de.tol").count(), is(0));
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for the {@link AnnotationSnapshot}
+ */
+public class AnnotationSnapshotTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    @Test
+    public void testForClass_unchanged() throws IOException {
+        final Path snapshotFile = temporaryFolder.newFile().toPath();
+        AnnotationSnapshot.record(snapshotFile, AnnotatedTestClass.class, DeepAnnotatedTestClass.class);
+
+        final AnnotationSnapshot snapshot = AnnotationSnapshot.load(snapshotFile);
+        snapshot.forClass(AnnotatedTestClass.class);
+        snapshot.forClass(DeepAnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testForClass_notRecorded() throws IOException {
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage("de.tolina.common.validation.DeepAnnotatedTestClass not recorded in snapshot");
+
+        final Path snapshotFile = temporaryFolder.newFile().toPath();
+        AnnotationSnapshot.record(snapshotFile, AnnotatedTestClass.class);
+
+        AnnotationSnapshot.load(snapshotFile).forClass(DeepAnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testDifferencesTo_valueChanged() throws NoSuchFieldException {
+        final TypeHierarchy typeHierarchy = new TypeHierarchy();
+        final AnnotationLayout recorded =
+                AnnotationLayout.of(AnnotatedTestClass.class.getDeclaredField("fieldWithAnnotations"), typeHierarchy);
+        final AnnotationLayout actual =
+                AnnotationLayout.of(DeepAnnotatedTestClass.class.getDeclaredField("annotatedField"), typeHierarchy);
+
+        assertThat(recorded.differencesTo(actual), contains("Expected value \"testvalue\" for Method 'testparameter' "
+                + "of de.tolina.common.validation.TestAnnotation but was \"default\""));
+    }
+
+
+    @Test
+    public void testOf_ownAnnotationHidesSupertypes() throws NoSuchMethodException {
+        final AnnotationLayout layout =
+                AnnotationLayout.of(OverridingTestClass.class.getMethod("overridden"), new TypeHierarchy());
+
+        assertThat(layout.getAnnotations().get(TestAnnotation.class.getName()).get("testparameter"),
+                is("\"own\""));
+    }
+
+
+    @Test
+    public void testCanonicalValueOf_escapesStrings() {
+        final String structureInValue = AnnotationLayout.canonicalValueOf(new String[]{"a\", \"b"});
+        final String twoValues = AnnotationLayout.canonicalValueOf(new String[]{"a", "b"});
+
+        assertThat(structureInValue, is("{\"a\\\", \\\"b\"}"));
+        assertThat(twoValues, is("{\"a\", \"b\"}"));
+        assertThat(AnnotationLayout.canonicalValueOf("back\\slash"), is("\"back\\\\slash\""));
+    }
+}
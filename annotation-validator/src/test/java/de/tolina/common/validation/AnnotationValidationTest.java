@@ -0,0 +1,522 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static de.tolina.common.validation.AnnotationDefinition.type;
+import static de.tolina.common.validation.AnnotationValidator.validate;
+import static de.tolina.common.validation.TestEnum.TEST;
+import static de.tolina.common.validation.TestEnum.TEST2;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the {@link AnnotationValidator}
+ */
+public class AnnotationValidationTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+
+    @Test
+    public void testValidateAnnotatedClass_exactly_defaultsAreNotEvaluated() throws NoSuchMethodException {
+        validate().exactly() //
+                .annotation(type(TestAnnotation.class) //
+                        .param("testparameter", "default") //
+                        .param("anotherTestParameter", "one", "two")) //
+                .annotation(type(AnnotatedTestInterfaceAnnotation.class)) //
+                .annotation(type(AnnotatedTestInterfaceForAbstractClassAnnotation.class)) //
+                .annotation(type(AnnotatedAbstractTestClassAnnotation.class)) //
+                .forClass(AnnotatedTestClass.class);
+    }
+
+    @Test
+    public void testValidateAnnotatedClass_only_defaultsAreEvaluated() throws NoSuchMethodException {
+        validate().only() //
+                .annotation(type(TestAnnotation.class)) //
+                .annotation(type(AnnotatedTestInterfaceAnnotation.class)) //
+                .annotation(type(AnnotatedTestInterfaceForAbstractClassAnnotation.class)) //
+                .annotation(type(AnnotatedAbstractTestClassAnnotation.class)) //
+                .forClass(AnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testValidateAnnotatedClass_NotExactlyAndNoAnnotationsValidated() throws NoSuchMethodException {
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage("Please add at least one Annotation to assert or enable strict validation.");
+        validate() //
+                .forClass(AnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testValidateAnnotatedClass_NotExactly() throws NoSuchMethodException {
+        validate() //
+                .annotation(type(AnnotatedTestInterfaceAnnotation.class)) //
+                .forClass(AnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testValidateAnnotatedClass_NotExactly_AnnotationsOfSuperclassAndInterface() {
+        validate() //
+                .annotation(type(AnnotatedAbstractTestClassAnnotation.class)) //
+                .annotation(type(AnnotatedTestInterfaceForAbstractClassAnnotation.class)) //
+                .forClass(AnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testValidateAnnotatedClass_NoSuchAnnotationMethod() throws NoSuchMethodException {
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage("Method noSuchMethod not found");
+
+        validate().exactly() //
+                .annotation(type(TestAnnotation.class) //
+                        .param("noSuchMethod", "default")) //
+                .forClass(AnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testValidateAnnotatedMethod_exactly_defaultsAreNotEvaluated() throws NoSuchMethodException {
+        validate().only() //
+                .annotation(type(TestAnnotation.class) //
+                        .param("testparameter", "testvalue") //
+                        .param("anotherTestParameter", "anotherTestValue")) //
+                .annotation(type(AnotherTestAnnotation.class) //
+                        .param("testEnum", TEST2)) //
+                .forMethod(AnnotatedTestClass.class.getMethod("methodWithAnnotations"));
+    }
+
+
+    @Test
+    public void testValidateAnnotatedMethod_only_defaultsAreEvaluated() throws NoSuchMethodException {
+        validate().only() //
+                .annotation(type(TestAnnotation.class) //
+                        .param("testparameter", "testvalue") //
+                        .param("anotherTestParameter", "anotherTestValue")) //
+                .annotation(type(AnotherTestAnnotation.class) //
+                        .param("testEnum", TEST2)) //
+                .forMethod(AnnotatedTestClass.class.getMethod("methodWithAnnotations"));
+    }
+
+
+    @Test
+    public void testValidateAnnotatedMethod_NotAllAnnotationMethodsDefinedInAnnotationDefinition()
+            throws NoSuchMethodException {
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage("Unexpected value for Method 'testparameter' found");
+
+        validate() //
+                .annotation(type(TestAnnotation.class) //
+                        .param("anotherTestParameter", "anotherTestValue")) //
+                .forMethod(AnnotatedTestClass.class.getMethod("methodWithAnnotations"));
+    }
+
+
+    @Test
+    public void testValidateAnnotatedMethod_NotAllAnnotationMethodsDefinedInAnnotationDefinition_NonStringValues()
+            throws NoSuchMethodException {
+        validate() //
+                .annotation(type(AnotherTestAnnotation.class).param("value", TEST2)) //
+                .forMethod(AnnotatedTestClass.class.getMethod("methodWithAnnotations"));
+    }
+
+
+    @Test
+    public void testValidateAnnotatedMethod_OverloadedMethod() throws NoSuchMethodException {
+        validate().only() //
+                .annotation(type(AnotherTestAnnotation.class) //
+                        .param("testEnum", TEST) //
+                        .param("value", TEST)) //
+                .forMethod(AnnotatedTestClass.class.getMethod("overloadedMethod", String.class, String.class));
+    }
+
+
+    @Test
+    public void testValidateAnnotatedMethod_UseAlias() throws NoSuchMethodException {
+        validate().only() //
+                .annotation(type(AliasTestAnnotation.class) //
+                        .param("referencedTestEnum", TEST2)) //
+                .forMethod(AnnotatedTestClass.class.getMethod("methodWithAliasAnnotations"));
+    }
+
+
+    @Test
+    public void testValidateAnnotatedMethod_UseAlias_WithoutAttribute() throws NoSuchMethodException {
+        validate().only() //
+                .annotation(type(AliasTestAnnotation.class) //
+                        .param("anotherValue", TEST)) //
+                .forMethod(AnnotatedTestClass.class.getMethod("methodWithAnOtherAliasAnnotations"));
+    }
+
+
+    @Test
+    public void testValidateAnnotatedInterfaceMethod() throws NoSuchMethodException {
+        validate().exactly() //
+                .annotation(type(AnnotatedTestInterfaceAnnotation.class)) //
+                .forMethod(AnnotatedTestClass.class.getMethod("annotatedInterfaceMethod"));
+    }
+
+
+    @Test
+    public void testValidateAnnotatedInterfaceMethodFromSuperclass() throws NoSuchMethodException {
+        validate().exactly() //
+                .annotation(type(AnnotatedTestInterfaceForAbstractClassAnnotation.class)) //
+                .forMethod(AnnotatedTestClass.class.getMethod("annotatedInterfaceMethodForAbstractClass"));
+    }
+
+
+    @Test
+    public void testValidateAnnotatedAbstractMethodFromSuperclass() throws NoSuchMethodException {
+        validate().exactly() //
+                .annotation(type(AnnotatedAbstractTestClassAnnotation.class)) //
+                .forMethod(AnnotatedTestClass.class.getDeclaredMethod("annotatedAbstractMethod"));
+    }
+
+
+    @Test
+    public void testValidateAnnotatedField_exactly_defaultsAreNotEvaluated() throws NoSuchFieldException {
+        validate().exactly() //
+                .annotation(type(TestAnnotation.class) //
+                        .param("testparameter", "testvalue")
+                        .param("anotherTestParameter", "one", "two")) //
+                .forField(AnnotatedTestClass.class.getDeclaredField("fieldWithAnnotations"));
+    }
+
+
+    @Test
+    public void testValidateAnnotatedField_only_defaultsAreEvaluated() throws NoSuchFieldException {
+        validate().only() //
+                .annotation(type(TestAnnotation.class) //
+                        .param("testparameter", "testvalue")) //
+                .forField(AnnotatedTestClass.class.getDeclaredField("fieldWithAnnotations"));
+    }
+
+
+    @Test
+    public void testValidateMethod() throws NoSuchMethodException {
+        validate().exactly()//
+                .forMethod(AnnotatedTestClass.class.getMethod("methodWithoutAnnotations"));
+    }
+
+
+    @Test
+    public void testValidateMethod_AnnotationNotPresent() throws NoSuchMethodException {
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage("Expected Annotation de.tolina.common.validation.TestAnnotation not found");
+        validate().exactly()//
+                .annotation(type(TestAnnotation.class)) //
+                .forMethod(AnnotatedTestClass.class.getMethod("methodWithoutAnnotations"));
+    }
+
+
+    @Test
+    public void testValidateMethod_NoSuchMethod() throws NoSuchMethodException {
+        thrown.expect(NoSuchMethodException.class);
+        validate().exactly()//
+                .forMethod(AnnotatedTestClass.class.getMethod("noSuchMethod"));
+    }
+
+
+    @Test
+    public void testValidateField() throws NoSuchFieldException {
+        validate().exactly().forField(AnnotatedTestClass.class.getDeclaredField("fieldWithoutAnnotations"));
+    }
+
+
+    @Test
+    public void testValidateClassDeep() {
+        validate().only() //
+                .annotation(type(TestAnnotation.class)) //
+                .forClassDeep(DeepAnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testValidateClassDeep_MemberNotAnnotated() {
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage("AnnotatedTestClass.methodWithoutAnnotations(): ");
+        validate() //
+                .annotation(type(TestAnnotation.class)) //
+                .forClassDeep(AnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testValidateClassDeep_sameLayoutValidatedOnce() {
+        final AnnotationValidation validation = validate().annotation(type(TestAnnotation.class));
+
+        final List<ValidationResult> results =
+                validation.validateClassDeep(DeepAnnotatedTestClass.class, new TypeHierarchy());
+
+        assertThat(results, hasSize(7));
+        assertThat(results, everyItem(hasProperty("valid", is(true))));
+        assertThat(validation.layoutVerdicts.size(), is(1));
+    }
+
+
+    @Test
+    public void testValidateClassDeep_sameLayoutReportedPerElement() throws ReflectiveOperationException {
+        final AnnotationValidation validation = validate().annotation(type(AnotherTestAnnotation.class));
+
+        final ValidationResult first =
+                validation.resultFor(AnnotatedTestClass.class.getMethod("methodWithoutAnnotations"));
+        final ValidationResult second =
+                validation.resultFor(AnnotatedTestClass.class.getDeclaredField("fieldWithoutAnnotations"));
+
+        assertThat(first.getElement(), containsString("methodWithoutAnnotations"));
+        assertThat(second.getElement(), containsString("fieldWithoutAnnotations"));
+        assertThat(second.getErrors(), is(first.getErrors()));
+        assertThat(validation.layoutVerdicts.size(), is(1));
+    }
+
+
+    @Test
+    public void testTraversal_declared() {
+        validate().only() //
+                .traversal(HierarchyTraversal.DECLARED) //
+                .annotation(type(TestAnnotation.class)) //
+                .forClass(AnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testTraversal_declared_superclassAnnotationNotFound() {
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage("Expected Annotation de.tolina.common.validation.AnnotatedAbstractTestClassAnnotation");
+
+        validate() //
+                .traversal(HierarchyTraversal.DECLARED) //
+                .annotation(type(AnnotatedAbstractTestClassAnnotation.class)) //
+                .forClass(AnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testTraversal_inherited() {
+        validate().only() //
+                .traversal(HierarchyTraversal.INHERITED) //
+                .annotation(type(InheritedTestAnnotation.class)) //
+                .annotation(type(TestAnnotation.class)) //
+                .forClass(InheritingTestClass.class);
+    }
+
+
+    @Test
+    public void testCheck() {
+        final AnnotationValidation validation = validate().annotation(type(TestAnnotation.class));
+
+        assertTrue(validation.check(AnnotatedTestClass.class));
+        assertFalse(validation.check(AnnotatedAbstractTestClass.class));
+    }
+
+
+    @Test
+    public void testCheck_remembersVerdicts() {
+        final AnnotationValidation validation = validate().annotation(type(TestAnnotation.class));
+
+        validation.check(AnnotatedTestClass.class);
+        validation.check(AnnotatedTestClass.class);
+        validation.check(AnnotatedAbstractTestClass.class);
+
+        final CacheStatistics statistics = validation.getCheckStatistics();
+        assertThat(statistics.getHitCount(), is(1L));
+        assertThat(statistics.getMissCount(), is(2L));
+        assertThat(statistics.getSize(), is(2));
+    }
+
+
+    @Test
+    public void testCheck_sizeBound() {
+        final AnnotationValidation validation = validate().annotation(type(TestAnnotation.class)).checkCacheSize(1);
+
+        validation.check(AnnotatedTestClass.class);
+        validation.check(AnnotatedAbstractTestClass.class);
+
+        assertThat(validation.getCheckStatistics().getEvictionCount(), is(1L));
+        assertThat(validation.getCheckStatistics().getSize(), is(1));
+    }
+
+
+    @Test
+    public void testCheck_rulesChanged() {
+        final AnnotationValidation validation = validate().annotation(type(TestAnnotation.class));
+        assertTrue(validation.check(AnnotatedTestClass.class));
+
+        validation.annotation(type(AnotherTestAnnotation.class));
+
+        assertFalse(validation.check(AnnotatedTestClass.class));
+    }
+
+
+    @Test
+    public void testCheck_sameVerdictAsValidation() {
+        final List<AnnotationValidation> validations = Arrays.asList(
+                validate().annotation(type(TestAnnotation.class).param("testparameter", "testvalue")),
+                validate().only() //
+                        .annotation(type(TestAnnotation.class)) //
+                        .annotation(type(AnnotatedTestInterfaceAnnotation.class)) //
+                        .annotation(type(AnnotatedTestInterfaceForAbstractClassAnnotation.class)) //
+                        .annotation(type(AnnotatedAbstractTestClassAnnotation.class)),
+                validate().exactly().annotation(type(TestAnnotation.class)));
+
+        for (final AnnotationValidation validation : validations) {
+            for (final Class<?> annotatedClass : Arrays.asList(AnnotatedTestClass.class,
+                    AnnotatedAbstractTestClass.class, DeepAnnotatedTestClass.class, FirstMisannotatedTestClass.class)) {
+                assertThat(validation.check(annotatedClass),
+                        is(validation.resultFor(annotatedClass).getErrors().isEmpty()));
+            }
+        }
+    }
+
+
+    @Test
+    public void testCheck_adaptiveOrder_reportsKeepDeclaredOrder() {
+        final AnnotationValidation validation = validate().checkCacheSize(0)
+                .annotation(type(TestAnnotation.class).param("testparameter", "other"))
+                .annotation(type(AnotherTestAnnotation.class));
+        final List<String> declaredOrderErrors = validate()
+                .annotation(type(TestAnnotation.class).param("testparameter", "other"))
+                .annotation(type(AnotherTestAnnotation.class))
+                .resultFor(AnnotatedTestClass.class).getErrors();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(validation.check(AnnotatedTestClass.class));
+        }
+
+        assertThat(validation.resultFor(AnnotatedTestClass.class).getErrors(), is(declaredOrderErrors));
+    }
+
+
+    @Test
+    public void testInherited_attributedToDeclaringType() {
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage("Unexpected value for Method 'testparameter' found. Expected default \"default\" but "
+                + "found \"inherited\". (declared on " + MisannotatedTestInterface.class.getName() + ")");
+
+        validate().annotation(type(TestAnnotation.class)).forClass(FirstMisannotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testInherited_reportedOnce() {
+        final AnnotationValidation validation = validate().annotation(type(TestAnnotation.class));
+        final TypeHierarchy typeHierarchy = new TypeHierarchy();
+        final ValidationResult first = validation.validateElement(FirstMisannotatedTestClass.class, typeHierarchy);
+        final ValidationResult second = validation.validateElement(SecondMisannotatedTestClass.class, typeHierarchy);
+        assertThat(second.getErrors(), is(first.getErrors()));
+        assertThat(second.getInheritedErrors(), is(second.getErrors()));
+
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage(AnnotationValidation.describe(FirstMisannotatedTestClass.class) + " and 1 more elements: "
+                + "Unexpected value for Method 'testparameter'");
+
+        ParallelValidation.reportOf(Arrays.asList(first, second)).assertValid();
+    }
+
+
+    @Test
+    public void testInherited_notTakenFromMessage() {
+        final List<String> errors = Collections.singletonList("Expected value \"x\" (declared on y)");
+        final ValidationReport report = ParallelValidation.reportOf(Arrays.asList(new ValidationResult("first",
+                errors), new ValidationResult("second", errors)));
+
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage("second: Expected value");
+
+        report.assertValid();
+    }
+
+
+    @Test
+    public void testValidateLambdas() throws Exception {
+        TestInterface test1 = TestInterface::staticMethod;
+        Method annotatedMethod1 = test1.getClass().getMethod("method");
+        validate().annotation(type(Deprecated.class)).forMethod(annotatedMethod1);
+
+        TestInterface test2 = test1::defaultMethod;
+        Method annotatedMethod2 = test2.getClass().getMethod("defaultMethod");
+        validate().annotation(type(Deprecated.class)).forMethod(annotatedMethod2);
+    }
+
+
+    @InheritedTestAnnotation
+    @AnnotatedAbstractTestClassAnnotation
+    private static class InheritedTestClass {
+        // noop
+    }
+
+
+    @TestAnnotation
+    private static class InheritingTestClass extends InheritedTestClass implements AnnotatedTestInterface {
+        @Override
+        public void annotatedInterfaceMethod() {
+            // noop
+        }
+    }
+
+
+    @TestAnnotation(testparameter = "inherited")
+    private interface MisannotatedTestInterface {
+        // noop
+    }
+
+
+    private static class FirstMisannotatedTestClass implements MisannotatedTestInterface {
+        // noop
+    }
+
+
+    private static class SecondMisannotatedTestClass implements MisannotatedTestInterface {
+        // noop
+    }
+
+
+    interface TestInterface {
+
+        @Deprecated
+        static void staticMethod() {
+            System.out.println("staticMethod");
+        }
+
+        @Deprecated
+        void method();
+
+        @Deprecated
+        default void defaultMethod() {
+            System.out.println("defaultMethod");
+
+        }
+    }
+}
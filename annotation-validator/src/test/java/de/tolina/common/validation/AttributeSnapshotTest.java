@@ -0,0 +1,69 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.tolina.common.validation.AnnotationDefinition.type;
+import static de.tolina.common.validation.AnnotationValidator.validate;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for the {@link AttributeSnapshot}
+ */
+public class AttributeSnapshotTest {
+
+    private final Annotation annotation = AnnotatedTestClass.class.getAnnotation(TestAnnotation.class);
+
+
+    @Test
+    public void testRead_once() throws ReflectiveOperationException {
+        final AtomicInteger reads = new AtomicInteger();
+        final AttributeSnapshot.AttributeReader reader = instance -> {
+            reads.incrementAndGet();
+            return new String[]{"cloned"};
+        };
+
+        // a name no validation reads, the snapshot is shared by all tests
+        final Object value = AttributeSnapshot.of(annotation).read(annotation, "testRead_once", reader);
+        final Object secondValue = AttributeSnapshot.of(annotation).read(annotation, "testRead_once", reader);
+
+        assertThat(secondValue, is(sameInstance(value)));
+        assertThat(reads.get(), is(1));
+    }
+
+
+    @Test
+    public void testShared_byValidations() throws ReflectiveOperationException {
+        validate().annotation(type(TestAnnotation.class)).forClass(AnnotatedTestClass.class);
+        final Object value = AttributeSnapshot.of(annotation).read(annotation, "anotherTestParameter", instance -> {
+            throw new AssertionError("attribute already read by the validation");
+        });
+
+        validate().annotation(type(TestAnnotation.class).param("anotherTestParameter", "one", "two"))
+                .forClass(AnnotatedTestClass.class);
+
+        assertThat(AttributeSnapshot.of(annotation).read(annotation, "anotherTestParameter", TestAnnotation.class
+                .getMethod("anotherTestParameter")::invoke), is(sameInstance(value)));
+        assertThat(AnnotationLayout.attributesOf(annotation), is(sameInstance(AnnotationLayout.attributesOf(
+                annotation))));
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static de.tolina.common.validation.AnnotationDefinition.type;
+import static de.tolina.common.validation.AnnotationValidator.validate;
+import static de.tolina.common.validation.ValueMatchers.satisfying;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the {@link BatchValidation}
+ */
+public class BatchValidationTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    @Test
+    public void testRun() throws Exception {
+        final Path classes = temporaryFolder.newFolder().toPath();
+        copyClassFile(classes, AnnotatedTestClass.class);
+        copyClassFile(classes, DeepAnnotatedTestClass.class);
+
+        final ValidationReport report = validate().annotation(type(TestAnnotation.class)) //
+                .inBatches() //
+                .batchSize(1) //
+                .run(getClass().getClassLoader(), classes);
+
+        assertTrue(report.getFailures().toString(), report.isValid());
+        assertThat(report.getValidatedElements(), is(2));
+    }
+
+
+    @Test
+    public void testRun_releasesClassLoaders() throws Exception {
+        final Path classes = temporaryFolder.newFolder().toPath();
+        final Path dependencies = temporaryFolder.newFolder().toPath();
+        copyClassFile(classes, DeepAnnotatedTestClass.class);
+        copyClassFile(dependencies, TestAnnotation.class);
+
+        final AnnotationValidation validation = validate().annotation(type(TestAnnotation.class));
+        URLClassLoader dependencyLoader = new URLClassLoader(new URL[]{dependencies.toUri().toURL()}, null);
+        final WeakReference<ClassLoader> released = new WeakReference<>(dependencyLoader);
+
+        // the Annotations are of another class loader than the definition and only match by name
+        final ValidationReport report = validation.inBatches().deep().run(dependencyLoader, classes);
+        assertTrue(report.getFailures().toString(), report.isValid());
+        assertThat(report.getValidatedElements(), is(7));
+
+        dependencyLoader.close();
+        dependencyLoader = null;
+        for (int i = 0; i < 20 && released.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertNull("class loader still referenced by the validation", released.get());
+        assertThat(validation.layoutVerdicts.isEmpty(), is(false));
+    }
+
+
+    @Test
+    public void testRun_releasesClassLoaders_classValuedAttribute() throws Exception {
+        final Path classes = temporaryFolder.newFolder().toPath();
+        final Path dependencies = temporaryFolder.newFolder().toPath();
+        copyClassFile(classes, ClassReferencingTestClass.class);
+        copyClassFile(dependencies, ClassReferenceTestAnnotation.class);
+
+        final AnnotationValidation validation = validate().annotation(type(ClassReferenceTestAnnotation.class)
+                .param("value", satisfying("the referencing Class", value ->
+                        ((Class<?>) value).getName().equals(ClassReferencingTestClass.class.getName()))));
+        URLClassLoader dependencyLoader = new URLClassLoader(new URL[]{dependencies.toUri().toURL()}, null);
+        final WeakReference<ClassLoader> released = new WeakReference<>(dependencyLoader);
+
+        // the attribute value is a Class of the batch, which must not be kept by read attribute values
+        final ValidationReport report = validation.inBatches().run(dependencyLoader, classes);
+        assertTrue(report.getFailures().toString(), report.isValid());
+
+        dependencyLoader.close();
+        dependencyLoader = null;
+        for (int i = 0; i < 20 && released.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertNull("class loader still referenced by the attribute values", released.get());
+        assertThat(validation.layoutVerdicts.isEmpty(), is(false));
+    }
+
+
+    @Test
+    public void testRun_annotationsOfOtherClassLoader_defaultMode() throws Exception {
+        final Path classes = temporaryFolder.newFolder().toPath();
+        final Path dependencies = temporaryFolder.newFolder().toPath();
+        copyClassFile(classes, DeepAnnotatedTestClass.class);
+        copyClassFile(dependencies, TestAnnotation.class);
+
+        try (final URLClassLoader dependencyLoader =
+                     new URLClassLoader(new URL[]{dependencies.toUri().toURL()}, null)) {
+            final ValidationReport passing = validate().annotation(type(TestAnnotation.class)) //
+                    .inBatches() //
+                    .run(dependencyLoader, classes);
+            assertTrue(passing.toString(), passing.isValid());
+
+            final ValidationReport failing = validate()
+                    .annotation(type(TestAnnotation.class).param("testparameter", "other")) //
+                    .inBatches() //
+                    .run(dependencyLoader, classes);
+            assertThat(failing.toString(), failing.getFailures().get(0).getErrors(), contains(
+                    "Expected value \"other\" for Method 'testparameter' but found \"default\"."));
+        }
+    }
+
+
+    private void copyClassFile(final Path classes, final Class<?> testClass) throws IOException {
+        final String resourceName = testClass.getName().replace('.', '/') + ".class";
+        final Path classFile = classes.resolve(resourceName);
+        Files.createDirectories(classFile.getParent());
+        try (final InputStream in = testClass.getClassLoader().getResourceAsStream(resourceName)) {
+            Files.copy(in, classFile);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+@TestAnnotation
+@SuppressWarnings("javadoc")
+class DeepAnnotatedTestClass {
+
+    @TestAnnotation
+    private String annotatedField;
+
+    @TestAnnotation
+    DeepAnnotatedTestClass(@TestAnnotation final String annotatedField) {
+        this.annotatedField = annotatedField;
+    }
+
+    @TestAnnotation
+    public void annotatedMethod(@TestAnnotation final String parameter) {
+        // noop
+    }
+
+    @TestAnnotation
+    public String annotatedMethodWithoutParameters() {
+        return annotatedField;
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Test;
+
+import java.lang.reflect.AnnotatedElement;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import static de.tolina.common.validation.AnnotationValidator.constraints;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test for the {@link ElementConstraints}
+ */
+public class ElementConstraintsTest {
+
+    @Test
+    public void testUnique() throws ReflectiveOperationException {
+        final ValidationReport report = constraints() //
+                .unique(TestAnnotation.class, "testparameter") //
+                .forElements(Arrays.asList(AnnotatedTestClass.class.getDeclaredField("fieldWithAnnotations"),
+                        AnnotatedTestClass.class.getMethod("methodWithAnnotations"), AnnotatedTestClass.class));
+
+        assertThat(report.getValidatedElements(), is(3));
+        assertThat(report.getFailures(), hasSize(1));
+        assertThat(report.getFailures().get(0).getErrors(), contains("de.tolina.common.validation.TestAnnotation "
+                + "(testparameter=\"testvalue\") is not unique, already found on "
+                + AnnotatedTestClass.class.getDeclaredField("fieldWithAnnotations")));
+    }
+
+
+    @Test
+    public void testUnique_afterFailedRun() throws ReflectiveOperationException {
+        final ElementConstraints constraints = constraints().unique(TestAnnotation.class, "testparameter");
+        final AnnotatedElement field = AnnotatedTestClass.class.getDeclaredField("fieldWithAnnotations");
+        final Iterable<AnnotatedElement> failingElements = () -> new Iterator<AnnotatedElement>() {
+            private boolean visited;
+
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+
+            @Override
+            public AnnotatedElement next() {
+                if (visited) {
+                    throw new IllegalStateException("class path broken");
+                }
+                visited = true;
+                return field;
+            }
+        };
+        try {
+            constraints.forElements(failingElements);
+            fail("run should have failed");
+        } catch (final IllegalStateException expected) {
+            // the field was indexed before
+        }
+
+        final ValidationReport report =
+                constraints.forElements(singletonList(AnnotatedTestClass.class.getMethod("methodWithAnnotations")));
+
+        assertTrue(report.toString(), report.isValid());
+    }
+
+
+    @Test
+    public void testUnique_annotationsOfOtherClassLoader() throws Exception {
+        final URL testClasses = AnnotatedTestClass.class.getProtectionDomain().getCodeSource().getLocation();
+        try (final URLClassLoader otherClassLoader = new URLClassLoader(new URL[]{testClasses}, null)) {
+            final Class<?> otherClass = otherClassLoader.loadClass(AnnotatedTestClass.class.getName());
+
+            final ValidationReport report = constraints() //
+                    .unique(TestAnnotation.class, "testparameter") //
+                    .forElements(Arrays.asList(otherClass.getDeclaredField("fieldWithAnnotations"),
+                            otherClass.getMethod("methodWithAnnotations")));
+
+            assertThat(report.getFailures(), hasSize(1));
+        }
+    }
+
+
+    @Test
+    public void testUnique_combinationOfArrayValues() {
+        final ValidationReport report = constraints() //
+                .unique(TestAnnotation.class, "testparameter", "anotherTestParameter") //
+                .forClassesDeep(Collections.singletonList(AnnotatedTestClass.class));
+
+        assertTrue(report.toString(), report.isValid());
+    }
+
+
+    @Test
+    public void testReferences() throws ReflectiveOperationException {
+        final ValidationReport report = constraints() //
+                .references(TestAnnotation.class, "anotherTestParameter", TestAnnotation.class, "testparameter") //
+                .forClassesDeep(Collections.singletonList(AnnotatedTestClass.class));
+
+        assertThat(report.getFailures(), hasItem(hasProperty("element",
+                is(AnnotatedTestClass.class.getMethod("methodWithAnnotations").toString()))));
+        assertThat(report.getFailures(), hasItem(hasProperty("errors", contains(
+                "de.tolina.common.validation.TestAnnotation.anotherTestParameter \"anotherTestValue\" is not declared "
+                        + "by any de.tolina.common.validation.TestAnnotation.testparameter"))));
+    }
+}
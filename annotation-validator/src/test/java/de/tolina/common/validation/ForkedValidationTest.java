@@ -0,0 +1,130 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static de.tolina.common.validation.AnnotationValidator.validateForked;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the {@link ForkedValidation}
+ */
+public class ForkedValidationTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path classes;
+
+
+    @Before
+    public void setUp() throws IOException {
+        classes = temporaryFolder.newFolder().toPath();
+        copyClassFile(AnnotatedTestClass.class);
+        copyClassFile(DeepAnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testRun() throws Exception {
+        final ValidationReport report = validateForked(TestAnnotationRules.class) //
+                .classes(classes) //
+                .workers(2) //
+                .run();
+
+        assertTrue(report.toString(), report.isValid());
+        assertThat(report.getValidatedElements(), is(2));
+    }
+
+
+    @Test
+    public void testRun_deep() throws Exception {
+        final ValidationReport report = validateForked(TestAnnotationRules.class) //
+                .classes(classes) //
+                .workers(2) //
+                .deep() //
+                .run();
+
+        assertThat(report.getFailures(), hasItem(hasProperty("element",
+                is("public void de.tolina.common.validation.AnnotatedTestClass.methodWithoutAnnotations()"))));
+        assertThat(report.getFailures(), everyItem(hasProperty("element", not(containsString("DeepAnnotatedTestClass")))));
+    }
+
+
+    @Test
+    public void testRun_timeout() throws Exception {
+        final ValidationReport report = validateForked(TestAnnotationRules.class) //
+                .classes(classes) //
+                .workers(1) //
+                .timeout(1, TimeUnit.MILLISECONDS) //
+                .run();
+
+        assertThat(report.getFailures(), hasItem(hasProperty("errors", hasItem("Worker timed out after 1 ms"))));
+    }
+
+
+    @Test
+    public void testReadReport_inheritedErrors() throws IOException {
+        final ValidationReport report = new ValidationReport(2, Arrays.asList(
+                new ValidationResult("first", Arrays.asList("own", "inherited"), Collections.singletonList("inherited")),
+                new ValidationResult("second", Collections.singletonList("own"))));
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            ForkedValidationWorker.writeReport(out, report);
+        }
+
+        final ValidationReport readReport = ForkedValidationWorker.readReport(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(readReport.getFailures().get(0).getInheritedErrors(), contains("inherited"));
+        assertThat(readReport.getFailures().get(1).getInheritedErrors(), is(empty()));
+    }
+
+
+    private void copyClassFile(final Class<?> testClass) throws IOException {
+        final String resourceName = testClass.getName().replace('.', '/') + ".class";
+        final Path classFile = classes.resolve(resourceName);
+        Files.createDirectories(classFile.getParent());
+        try (final InputStream in = testClass.getClassLoader().getResourceAsStream(resourceName)) {
+            Files.copy(in, classFile);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Collectors;
+
+import static de.tolina.common.validation.AnnotationValidator.diff;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the {@link LayoutDiff}
+ */
+public class LayoutDiffTest {
+
+    private static final String TEST_ANNOTATION = TestAnnotation.class.getName();
+    private static final String ANOTHER_TEST_ANNOTATION = AnotherTestAnnotation.class.getName();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path baseline;
+    private Path current;
+
+
+    @Before
+    public void setUp() throws Exception {
+        baseline = compile("package drift;\n" //
+                + "@" + TEST_ANNOTATION + "(testparameter = \"a\")\n" //
+                + "public class DriftingClass {\n" //
+                + "    @" + TEST_ANNOTATION + " public void unchanged() {}\n" //
+                + "    @" + TEST_ANNOTATION + " public void withoutAnnotation() {}\n" //
+                + "    @" + TEST_ANNOTATION + " public void removed() {}\n" //
+                + "}\n");
+        current = compile("package drift;\n" //
+                + "@" + TEST_ANNOTATION + "(testparameter = \"b\") @" + ANOTHER_TEST_ANNOTATION + "\n" //
+                + "public class DriftingClass {\n" //
+                + "    @" + TEST_ANNOTATION + " public void unchanged() {}\n" //
+                + "    public void withoutAnnotation() {}\n" //
+                + "    @" + TEST_ANNOTATION + " public void added() {}\n" //
+                + "}\n");
+    }
+
+
+    @Test
+    public void testRun() throws Exception {
+        final ValidationReport report = diff(baseline, current).threads(2).run();
+
+        assertThat(report.getValidatedElements(), is(6));
+        assertThat(report.getFailures().stream().map(ValidationResult::getElement).collect(Collectors.toList()),
+                contains("drift.DriftingClass", "drift.DriftingClass#withoutAnnotation()",
+                        "drift.DriftingClass#removed()"));
+        assertThat(report.getFailures().get(0).getErrors(), contains("Expected value \"a\" for Method "
+                + "'testparameter' of " + TEST_ANNOTATION + " but was \"b\""));
+        assertThat(report.getFailures().get(2).getErrors(), contains("Element not found in " + current,
+                "Expected Annotation " + TEST_ANNOTATION + " not found"));
+    }
+
+
+    @Test
+    public void testRun_only() throws Exception {
+        final ValidationReport report = diff(baseline, current).mode(ValidationMode.ONLY).run();
+
+        assertThat(report.getFailures().stream().map(ValidationResult::getElement).collect(Collectors.toList()),
+                containsInAnyOrder("drift.DriftingClass", "drift.DriftingClass#withoutAnnotation()",
+                        "drift.DriftingClass#added()", "drift.DriftingClass#removed()"));
+        assertThat(report.getFailures().get(0).getErrors(), contains("Expected value \"a\" for Method "
+                + "'testparameter' of " + TEST_ANNOTATION + " but was \"b\"",
+                "Unexpected Annotation " + ANOTHER_TEST_ANNOTATION + " found"));
+    }
+
+
+    @Test
+    public void testRun_overriddenMethod() throws Exception {
+        final String source = "package drift;\n" //
+                + "interface DriftingInterface {\n" //
+                + "    @" + TEST_ANNOTATION + "(testparameter = \"interface\") void overridden();\n" //
+                + "}\n" //
+                + "public class DriftingClass implements DriftingInterface {\n" //
+                + "    @" + TEST_ANNOTATION + "(testparameter = \"%s\") public void overridden() {}\n" //
+                + "}\n";
+
+        final ValidationReport report =
+                diff(compile(String.format(source, "a")), compile(String.format(source, "b"))).run();
+
+        assertThat(report.getFailures().stream().map(ValidationResult::getElement).collect(Collectors.toList()),
+                contains("drift.DriftingClass#overridden()"));
+        assertThat(report.getFailures().get(0).getErrors(), contains("Expected value \"a\" for Method "
+                + "'testparameter' of " + TEST_ANNOTATION + " but was \"b\""));
+    }
+
+
+    @Test
+    public void testRun_unchanged() throws Exception {
+        final ValidationReport report = diff(baseline, baseline).mode(ValidationMode.EXACTLY).run();
+
+        assertTrue(report.toString(), report.isValid());
+    }
+
+
+    private Path compile(final String source) throws IOException, URISyntaxException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+
+        final Path sourceDirectory = temporaryFolder.newFolder().toPath();
+        final Path classes = temporaryFolder.newFolder().toPath();
+        final Path sourceFile = Files.createDirectories(sourceDirectory.resolve("drift")).resolve("DriftingClass.java");
+        Files.write(sourceFile, source.getBytes(UTF_8));
+
+        final String testClasses =
+                Paths.get(TestAnnotation.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        final int result = compiler.run(null, null, null, "-cp", testClasses, "-d", classes.toString(),
+                sourceFile.toString());
+        assertThat(result, is(0));
+        return classes;
+    }
+}
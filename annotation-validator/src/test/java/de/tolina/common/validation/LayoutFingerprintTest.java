@@ -0,0 +1,67 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for the {@link LayoutFingerprint}
+ */
+public class LayoutFingerprintTest {
+
+    @Test
+    public void testAdd_textsAreDelimited() {
+        assertThat(new LayoutFingerprint().add("ab").add("c").getValue(),
+                is(not(new LayoutFingerprint().add("a").add("bc").getValue())));
+    }
+
+
+    @Test
+    public void testOfAnnotation_attributesAreDelimited() {
+        final Map<String, String> twoAttributes = new TreeMap<>();
+        twoAttributes.put("a", "b)(c=d");
+        twoAttributes.put("e", "f");
+        final Map<String, String> threeAttributes = new TreeMap<>();
+        threeAttributes.put("a", "b");
+        threeAttributes.put("c", "d");
+        threeAttributes.put("e", "f");
+
+        assertThat(LayoutFingerprint.ofAnnotation("T", twoAttributes),
+                is(not(LayoutFingerprint.ofAnnotation("T", threeAttributes))));
+        assertThat(LayoutFingerprint.ofAnnotation("T", Collections.singletonMap("a", "")),
+                is(not(LayoutFingerprint.ofAnnotation("Ta", Collections.emptyMap()))));
+    }
+
+
+    @Test
+    public void testAdd_annotationHashedOnce() {
+        final Annotation annotation = AnnotatedTestClass.class.getAnnotation(TestAnnotation.class);
+        final long expected = new LayoutFingerprint().add(annotation).getValue();
+
+        assertThat(AttributeSnapshot.of(annotation).getFingerprint(annotation), is(LayoutFingerprint.ofAnnotation(
+                TestAnnotation.class.getName(), AnnotationLayout.attributesOf(annotation))));
+        assertThat(new LayoutFingerprint().add(annotation).getValue(), is(expected));
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static de.tolina.common.validation.AnnotationDefinition.type;
+import static de.tolina.common.validation.AnnotationValidator.validate;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the {@link ParallelValidation}
+ */
+public class ParallelValidationTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path classes;
+
+
+    @Before
+    public void setUp() throws IOException {
+        classes = temporaryFolder.newFolder().toPath();
+        copyClassFile(AnnotatedTestClass.class);
+        copyClassFile(DeepAnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testRun() throws Exception {
+        final ParallelValidation validation = validate().annotation(type(TestAnnotation.class)).inParallel().threads(2);
+
+        final ValidationReport report = validation.run(getClass().getClassLoader(), classes);
+        final ValidationReport secondReport = validation.run(getClass().getClassLoader(), classes);
+
+        assertTrue(report.toString(), report.isValid());
+        assertThat(report.getValidatedElements(), is(2));
+        assertThat(secondReport.getValidatedElements(), is(2));
+    }
+
+
+    @Test
+    public void testRun_deep() throws Exception {
+        final ValidationReport report = validate().annotation(type(TestAnnotation.class)) //
+                .inParallel() //
+                .threads(2) //
+                .deep() //
+                .run(getClass().getClassLoader(), classes);
+
+        assertThat(report.getFailures(), hasItem(hasProperty("element",
+                is("public void de.tolina.common.validation.AnnotatedTestClass.methodWithoutAnnotations()"))));
+        assertThat(report.getFailures(), everyItem(hasProperty("element", not(containsString("DeepAnnotatedTestClass")))));
+    }
+
+
+    @Test
+    public void testRun_costs() throws Exception {
+        final ParallelValidation validation = validate().annotation(type(TestAnnotation.class)).inParallel().deep();
+        final ClassLoader classLoader = getClass().getClassLoader();
+
+        assertThat(validation.structuralCostOf(classLoader, AnnotatedTestClass.class.getName()),
+                greaterThan(validation.structuralCostOf(classLoader, DeepAnnotatedTestClass.class.getName())));
+        assertThat(validation.structuralCostOf(classLoader, "not.existing.Class"), is(0d));
+
+        validation.run(classLoader, classes);
+
+        final Long recordedCost = validation.costs.recordedCosts.get(AnnotatedTestClass.class.getName());
+        assertThat(validation.costs.recordedCosts.keySet(), hasItem(DeepAnnotatedTestClass.class.getName()));
+        assertThat(validation.costs.estimate(AnnotatedTestClass.class.getName(), 1), is(recordedCost.doubleValue()));
+    }
+
+
+    @Test
+    public void testRun_costsSharedByRules() throws Exception {
+        final AnnotationValidation rules = validate().annotation(type(TestAnnotation.class));
+        rules.inParallel().run(getClass().getClassLoader(), classes);
+
+        // e.g. a build validating each module with a new ParallelValidation of the same rules
+        final ParallelValidation nextModule = rules.inParallel();
+        final Long recordedCost = rules.parallelCosts.recordedCosts.get(AnnotatedTestClass.class.getName());
+        assertThat(nextModule.costs.estimate(AnnotatedTestClass.class.getName(), 1), is(recordedCost.doubleValue()));
+    }
+
+
+    private void copyClassFile(final Class<?> testClass) throws IOException {
+        final String resourceName = testClass.getName().replace('.', '/') + ".class";
+        final Path classFile = classes.resolve(resourceName);
+        Files.createDirectories(classFile.getParent());
+        try (final InputStream in = testClass.getClassLoader().getResourceAsStream(resourceName)) {
+            Files.copy(in, classFile);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.beans.Transient;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the {@link ReloadableRules} and the {@link RuleFile} format
+ */
+public class ReloadableRulesTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+
+    @Test
+    public void testWatch() throws Exception {
+        final Path ruleFile = writeRules(temporaryFolder.newFile().toPath(), //
+                "# test rules", //
+                "mode = ONLY", //
+                "@" + TestAnnotation.class.getName(), //
+                "testparameter = \"testvalue\"", //
+                "anotherTestParameter = anotherTestValue", //
+                "@" + AnotherTestAnnotation.class.getName(), //
+                "value = TEST2");
+
+        try (final ReloadableRules rules = ReloadableRules.watch(ruleFile, getClass().getClassLoader())) {
+            final ValidationResult result =
+                    rules.resultFor(AnnotatedTestClass.class.getMethod("methodWithAnnotations"));
+            assertTrue(result.getErrors().toString(), result.isValid());
+            assertFalse(rules.check(AnnotatedTestClass.class));
+            assertThat(rules.getVersion(), is(1L));
+
+            writeRules(ruleFile, "@" + TestAnnotation.class.getName());
+            final long deadline = System.currentTimeMillis() + 30_000;
+            while (!rules.check(AnnotatedTestClass.class) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+
+            assertTrue(rules.check(AnnotatedTestClass.class));
+            assertThat(rules.getVersion(), is(greaterThan(1L)));
+        }
+    }
+
+
+    @Test
+    public void testReload_keepsRulesOnFailure() throws Exception {
+        final Path ruleFile = writeRules(temporaryFolder.newFile().toPath(), "@" + TestAnnotation.class.getName());
+
+        final ReloadableRules rules = ReloadableRules.watch(ruleFile, getClass().getClassLoader());
+        // reloaded by hand only, the watcher might see the file half written
+        rules.close();
+        writeRules(ruleFile, "@" + TestAnnotation.class.getName(), "unknownParameter = 1");
+
+        assertFalse(rules.reload());
+        assertThat(rules.getReloadFailure(), is(notNullValue()));
+        assertThat(rules.getReloadFailure().getMessage(), containsString("Line 2"));
+        assertTrue(rules.check(AnnotatedTestClass.class));
+    }
+
+
+    @Test
+    public void testWatch_invalidRules() throws Exception {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Line 1 'mode = SOMETIMES'");
+
+        ReloadableRules.watch(writeRules(temporaryFolder.newFile().toPath(), "mode = SOMETIMES"),
+                getClass().getClassLoader());
+    }
+
+
+    @Test
+    public void testParse_quotedArrayElements() {
+        final AnnotationValidation validation = RuleFile.parse(Arrays.asList( //
+                "@" + TestAnnotation.class.getName(), //
+                "anotherTestParameter = \"a, b\", \"say \\\"hi\\\"\", c\\d"), getClass().getClassLoader());
+
+        assertTrue(validation.check(QuotedValuesTestClass.class));
+    }
+
+
+    @Test
+    public void testParse_missingClosingQuote() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Line 2 'anotherTestParameter = \"a, b': Missing closing quote");
+
+        RuleFile.parse(Arrays.asList("@" + TestAnnotation.class.getName(), "anotherTestParameter = \"a, b"),
+                getClass().getClassLoader());
+    }
+
+
+    @Test
+    public void testParse_invalidBoolean() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Line 2 'value = ture': Expected true or false but found ture");
+
+        RuleFile.parse(Arrays.asList("@" + Transient.class.getName(), "value = ture"), getClass().getClassLoader());
+    }
+
+
+    private static Path writeRules(final Path ruleFile, final String... lines) throws IOException {
+        return Files.write(ruleFile, Arrays.asList(lines), UTF_8);
+    }
+
+
+    @TestAnnotation(anotherTestParameter = {"a, b", "say \"hi\"", "c\\d"})
+    private static class QuotedValuesTestClass {
+        // noop
+    }
+}
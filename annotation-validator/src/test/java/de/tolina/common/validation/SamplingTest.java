@@ -0,0 +1,92 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static de.tolina.common.validation.AnnotationDefinition.type;
+import static de.tolina.common.validation.AnnotationValidator.validate;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the {@link Sampling}
+ */
+public class SamplingTest {
+
+    private final AnnotationValidation wrongParameter =
+            validate().annotation(type(TestAnnotation.class).param("testparameter", "other"));
+
+
+    @Test
+    public void testCheck_notSampled_presenceOnly() {
+        final Sampling sampling = Sampling.rate(0);
+        wrongParameter.sampling(sampling);
+
+        assertTrue(wrongParameter.check(AnnotatedTestClass.class));
+        assertFalse(wrongParameter.check(AnnotatedAbstractTestClass.class));
+        assertThat(sampling.getPresenceCheckCount(), is(2L));
+    }
+
+
+    @Test
+    public void testCheck_notSampled_noDefinitions() {
+        final Sampling sampling = Sampling.rate(0);
+        final AnnotationValidation noDefinitions = validate().sampling(sampling);
+
+        assertFalse(noDefinitions.check(AnnotatedTestClass.class));
+        assertThat(sampling.getFullValidationCount(), is(0L));
+        assertFalse(validate().check(AnnotatedTestClass.class));
+    }
+
+
+    @Test
+    public void testCheck_sampled() {
+        final Sampling sampling = Sampling.rate(1);
+        wrongParameter.sampling(sampling);
+
+        assertFalse(wrongParameter.check(AnnotatedTestClass.class));
+        assertThat(sampling.getFullValidationCount(), is(1L));
+    }
+
+
+    @Test
+    public void testCheck_perPackage_firstClassSampled() {
+        final Sampling sampling = Sampling.rate(0).perPackage();
+        wrongParameter.sampling(sampling);
+
+        assertFalse(wrongParameter.check(AnnotatedTestClass.class));
+        assertTrue(wrongParameter.check(DeepAnnotatedTestClass.class));
+        assertThat(sampling.getFullValidationCount(), is(1L));
+        assertThat(sampling.getPresenceCheckCount(), is(1L));
+    }
+
+
+    @Test
+    public void testEffectiveRate_costBudget() {
+        final Sampling sampling = Sampling.rate(0.5).costBudget(1, TimeUnit.MICROSECONDS);
+        assertThat(sampling.getEffectiveRate(), is(0.5));
+
+        sampling.recordCost(10_000);
+
+        assertThat(sampling.getEffectiveRate(), closeTo(0.1, 0.001));
+    }
+}
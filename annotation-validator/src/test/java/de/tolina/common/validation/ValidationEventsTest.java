@@ -0,0 +1,41 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import de.tolina.common.validation.ValidationEvents.Span;
+import org.junit.Test;
+
+import static de.tolina.common.validation.ValidationEvents.Phase.ATTRIBUTE_READ;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for the Java 8 variant of {@link ValidationEvents}, the Java 11 variant is tested by ValidationEventsIT
+ * against the multi release jar
+ */
+public class ValidationEventsTest {
+
+    @Test
+    public void testElementAndPhase_sharedNoopSpan() {
+        final Span element = ValidationEvents.element(AnnotatedTestClass.class, ValidationMode.DEFAULT);
+        final Span phase = ValidationEvents.phase(ATTRIBUTE_READ, AnnotatedTestClass.class, TestAnnotation.class,
+                ValidationMode.DEFAULT);
+
+        assertThat(phase, sameInstance(element));
+        phase.close();
+        element.close();
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.lang.reflect.AnnotatedElement;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static de.tolina.common.validation.AnnotationDefinition.type;
+import static de.tolina.common.validation.AnnotationValidator.validate;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for the {@link ValidationPipeline}
+ */
+public class ValidationPipelineTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+
+    @Test
+    public void testRun() throws Exception {
+        final List<AnnotatedElement> elements = new ArrayList<>();
+        elements.add(DeepAnnotatedTestClass.class);
+        elements.addAll(Arrays.asList(DeepAnnotatedTestClass.class.getDeclaredMethods()));
+        elements.add(AnnotatedTestClass.class.getMethod("methodWithoutAnnotations"));
+        final List<ValidationResult> results = new ArrayList<>();
+
+        final long validatedElements = validate().annotation(type(TestAnnotation.class)) //
+                .pipeline() //
+                .parallelism(2) //
+                .bufferSize(1) //
+                .run(elements.iterator(), results::add);
+
+        assertThat(validatedElements, is((long) elements.size()));
+        assertThat(results, hasSize(elements.size()));
+        assertThat(results, hasItem(hasProperty("valid", is(false))));
+    }
+
+
+    @Test
+    public void testRun_deep() throws Exception {
+        final List<ValidationResult> results = new ArrayList<>();
+
+        validate().annotation(type(TestAnnotation.class)) //
+                .pipeline() //
+                .deep() //
+                .run(Arrays.asList(DeepAnnotatedTestClass.class).iterator(), results::add);
+
+        assertThat(results, hasSize(7));
+        assertThat(results, everyItem(hasProperty("valid", is(true))));
+    }
+
+
+    @Test
+    public void testRun_classPath() throws Exception {
+        final Path testClasses =
+                Paths.get(DeepAnnotatedTestClass.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final List<ValidationResult> results = new ArrayList<>();
+
+        final long validatedElements = validate().annotation(type(TestAnnotation.class)) //
+                .pipeline() //
+                .bufferSize(2) //
+                .run(getClass().getClassLoader(), results::add, testClasses);
+
+        assertThat(results, hasItem(hasProperty("element", is(DeepAnnotatedTestClass.class.toString()))));
+        assertThat(results, hasSize((int) validatedElements));
+    }
+
+
+    @Test
+    public void testRun_sinkFails() throws Exception {
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("sink failed");
+
+        validate().annotation(type(TestAnnotation.class)) //
+                .pipeline() //
+                .run(Arrays.asList(DeepAnnotatedTestClass.class).iterator(), result -> {
+                    throw new IllegalStateException("sink failed");
+                });
+    }
+}
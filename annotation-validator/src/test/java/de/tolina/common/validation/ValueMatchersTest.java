@@ -0,0 +1,145 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static de.tolina.common.validation.AnnotationDefinition.type;
+import static de.tolina.common.validation.AnnotationValidator.validate;
+import static de.tolina.common.validation.ValueMatchers.*;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the {@link ValueMatchers}
+ */
+public class ValueMatchersTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+
+    @Test
+    public void testEqualTo() {
+        assertTrue(equalTo("a").matches("a"));
+        assertTrue(equalTo("a", "b").matches(new String[]{"a", "b"}));
+        assertFalse(equalTo("a", "b").matches(new String[]{"b", "a"}));
+        assertFalse(equalTo("a").matches(null));
+    }
+
+
+    @Test
+    public void testInAnyOrder() {
+        assertTrue(inAnyOrder("a", "b", "b").matches(new String[]{"b", "a", "b"}));
+        assertFalse(inAnyOrder("a", "b", "b").matches(new String[]{"a", "a", "b"}));
+        assertFalse(inAnyOrder("a", "b").matches(new String[]{"a"}));
+        assertTrue(inAnyOrder(1, 2).matches(new int[]{2, 1}));
+    }
+
+
+    @Test
+    public void testSubsetAndSupersetOf() {
+        assertTrue(subsetOf("a", "b", "c").matches(new String[]{"c", "a"}));
+        assertFalse(subsetOf("a", "b").matches(new String[]{"a", "x"}));
+        assertTrue(supersetOf("a", "b").matches(new String[]{"b", "x", "a"}));
+        assertFalse(supersetOf("a", "b").matches(new String[]{"a"}));
+    }
+
+
+    @Test
+    public void testMatchingAndBetween() {
+        assertTrue(matching("/api/.*").matches(new String[]{"/api/a", "/api/b"}));
+        assertFalse(matching("/api/.*").matches(new String[]{"/api/a", "/internal"}));
+        assertFalse(matching(".*").matches(1));
+        assertTrue(between(1, 10).matches(10));
+        assertFalse(between(1, 10).matches(11));
+        assertFalse(between(1, 10).matches(1L));
+    }
+
+
+    @Test
+    public void testParam_Matcher() throws NoSuchMethodException {
+        validate() //
+                .annotation(type(TestAnnotation.class) //
+                        .param("testparameter", matching("test.*")) //
+                        .param("anotherTestParameter", satisfying("one value", value -> ((String[]) value).length == 1))) //
+                .forMethod(AnnotatedTestClass.class.getMethod("methodWithAnnotations"));
+    }
+
+
+    @Test
+    public void testParam_MatcherFails() throws NoSuchMethodException {
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage("Expected values {\"one\", \"three\"} in any order for Method 'anotherTestParameter' "
+                + "but found {\"one\", \"two\"}.");
+
+        validate() //
+                .annotation(type(TestAnnotation.class) //
+                        .param("anotherTestParameter", inAnyOrder("one", "three"))) //
+                .forClass(AnnotatedTestClass.class);
+    }
+
+
+    @Test
+    public void testEqualTo_NestedAnnotations() throws NoSuchMethodException {
+        validate() //
+                .annotation(type(NestingTestAnnotation.class) //
+                        .param("nested", type(TestAnnotation.class).param("testparameter", "inner")) //
+                        .param("allNested", //
+                                type(TestAnnotation.class), //
+                                type(TestAnnotation.class).param("anotherTestParameter", inAnyOrder("b", "a")))) //
+                .forMethod(NestingTestClass.class.getMethod("nestingMethod"));
+    }
+
+
+    @Test
+    public void testEqualTo_NestedAnnotationsFail() throws NoSuchMethodException {
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage("Expected value @" + TestAnnotation.class.getName()
+                + "(testparameter=value \"other\") for Method 'nested' but found @" + TestAnnotation.class.getName()
+                + "(anotherTestParameter={\"one\", \"two\"}, testparameter=\"inner\").");
+
+        validate() //
+                .annotation(type(NestingTestAnnotation.class) //
+                        .param("nested", type(TestAnnotation.class).param("testparameter", "other")) //
+                        .param("allNested", type(TestAnnotation.class), type(TestAnnotation.class))) //
+                .forMethod(NestingTestClass.class.getMethod("nestingMethod"));
+    }
+
+
+    @Test
+    public void testIsDescribedCompletely() {
+        assertTrue(equalTo("a").isDescribedCompletely());
+        assertTrue(inAnyOrder("a", "b").isDescribedCompletely());
+        assertTrue(equalTo(type(TestAnnotation.class).param("testparameter", "a")).isDescribedCompletely());
+        assertFalse(satisfying("any value", value -> true).isDescribedCompletely());
+        assertFalse(equalTo(type(TestAnnotation.class).param("testparameter", satisfying("any value", value -> true)))
+                .isDescribedCompletely());
+    }
+
+
+    @SuppressWarnings("javadoc")
+    public static class NestingTestClass {
+
+        @NestingTestAnnotation(nested = @TestAnnotation(testparameter = "inner"),
+                allNested = {@TestAnnotation, @TestAnnotation(anotherTestParameter = {"a", "b"})})
+        public void nestingMethod() {
+            // nothing to do
+        }
+    }
+}
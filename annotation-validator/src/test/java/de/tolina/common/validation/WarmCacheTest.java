@@ -0,0 +1,168 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static de.tolina.common.validation.AnnotationDefinition.type;
+import static de.tolina.common.validation.AnnotationValidator.validate;
+import static de.tolina.common.validation.ValueMatchers.satisfying;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for the {@link WarmCache}
+ */
+public class WarmCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    // decides the verdict of the rules, so verdicts kept in the file can be told apart from computed ones
+    private final AtomicBoolean approved = new AtomicBoolean();
+    private Path cacheFile;
+    private Path classDirectory;
+    private List<Path> classPath;
+
+
+    @Before
+    public void setUp() throws IOException, URISyntaxException {
+        cacheFile = temporaryFolder.getRoot().toPath().resolve("verdicts.cache");
+        classDirectory = temporaryFolder.newFolder("classes").toPath();
+        Files.write(classDirectory.resolve("Rules.class"), new byte[]{1, 2, 3});
+        final Path testClasses = Paths.get(
+                AnnotatedTestClass.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        classPath = Arrays.asList(classDirectory, testClasses);
+    }
+
+
+    @Test
+    public void testWarmCache_keptAcrossJvms() throws IOException {
+        final List<String> errors = validateInNewJvm("approved value");
+        assertThat(errors, is(not(empty())));
+
+        approved.set(true);
+
+        assertThat(validateInNewJvm("approved value"), is(errors));
+    }
+
+
+    @Test
+    public void testWarmCache_classPathChanged() throws IOException {
+        validateInNewJvm("approved value");
+        approved.set(true);
+
+        Files.write(classDirectory.resolve("Rules.class"), new byte[]{4}, StandardOpenOption.APPEND);
+
+        assertThat(validateInNewJvm("approved value"), is(empty()));
+    }
+
+
+    @Test
+    public void testWarmCache_rulesChanged() throws IOException {
+        validateInNewJvm("approved value");
+        approved.set(true);
+
+        assertThat(validateInNewJvm("approved values"), is(empty()));
+    }
+
+
+    @Test
+    public void testWarmCache_predicateWithoutVersion() throws IOException {
+        final List<String> errors = validateInNewJvm(null);
+        assertThat(errors, is(not(empty())));
+
+        approved.set(true);
+
+        assertThat(validateInNewJvm(null), is(empty()));
+    }
+
+
+    @Test
+    public void testWarmCache_classOfOtherCodeSource() throws IOException {
+        classPath = Collections.singletonList(classDirectory);
+        validateInNewJvm("approved value");
+        approved.set(true);
+
+        assertThat(validateInNewJvm("approved value"), is(empty()));
+    }
+
+
+    @Test
+    public void testWarmCache_corruptFile() throws IOException {
+        validateInNewJvm("approved value");
+        approved.set(true);
+
+        final byte[] bytes = Files.readAllBytes(cacheFile);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(cacheFile, bytes);
+
+        assertThat(validateInNewJvm("approved value"), is(empty()));
+    }
+
+
+    @Test
+    public void testClassPathKeyOf_manifestClassPath() throws IOException {
+        final Path jarFile = temporaryFolder.getRoot().toPath().resolve("booter.jar");
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, classDirectory.toUri().toString());
+        try (final OutputStream out = new JarOutputStream(Files.newOutputStream(jarFile), manifest)) {
+            out.flush();
+        }
+        final List<Path> classPath = Collections.singletonList(jarFile);
+        final long key = WarmCache.classPathKeyOf(classPath);
+
+        Files.write(classDirectory.resolve("Other.class"), new byte[]{1});
+
+        assertThat(WarmCache.classPathKeyOf(classPath), is(not(key)));
+    }
+
+
+    /**
+     * Validates like a new JVM with fresh rules would and writes the verdicts before the next one starts
+     */
+    private List<String> validateInNewJvm(
+            final String rulesVersion) throws IOException {
+        final AnnotationValidation validation = validate()
+                .annotation(type(TestAnnotation.class).param("testparameter",
+                        satisfying("approved value", value -> approved.get())))
+                .warmCache(cacheFile, classPath, rulesVersion);
+        final List<String> errors = validation.resultFor(AnnotatedTestClass.class).getErrors();
+        validation.saveWarmCache();
+        return errors;
+    }
+}
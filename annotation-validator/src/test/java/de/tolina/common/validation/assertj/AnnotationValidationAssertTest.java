@@ -0,0 +1,75 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation.assertj;
+
+import static de.tolina.common.validation.AnnotationDefinition.type;
+import static de.tolina.common.validation.AnnotationValidator.validate;
+import static de.tolina.common.validation.assertj.AnnotationValidationAssert.assertThatAnnotationsOf;
+
+import java.lang.reflect.AnnotatedElement;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import de.tolina.common.validation.TestAnnotation;
+
+@SuppressWarnings("javadoc")
+public class AnnotationValidationAssertTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+
+	@Test
+	public void testConformTo() {
+		assertThatAnnotationsOf(AnnotatedClass.class) //
+				.conformTo(validate().annotation(type(TestAnnotation.class).param("testparameter", "custom")));
+	}
+
+
+	@Test
+	public void testConformTo_Failure() {
+		thrown.expect(AssertionError.class);
+		thrown.expectMessage("Expected value \"other\" for Method 'testparameter' but found \"custom\".");
+
+		assertThatAnnotationsOf(AnnotatedClass.class) //
+				.conformTo(validate().annotation(type(TestAnnotation.class).param("testparameter", "other")));
+	}
+
+
+	@Test
+	public void testConformTo_Softly() {
+		thrown.expect(AssertionError.class);
+		thrown.expectMessage("Expected Annotation " + TestAnnotation.class.getName() + " not found");
+
+		final SoftAssertions softly = new SoftAssertions();
+		softly.proxy(AnnotationValidationAssert.class, AnnotatedElement.class, NotAnnotatedClass.class) //
+				.conformTo(validate().annotation(type(TestAnnotation.class)));
+		softly.assertAll();
+	}
+
+
+	@TestAnnotation(testparameter = "custom")
+	private static class AnnotatedClass {
+		// noop
+	}
+
+	private static class NotAnnotatedClass {
+		// noop
+	}
+}
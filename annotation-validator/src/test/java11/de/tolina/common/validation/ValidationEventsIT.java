@@ -0,0 +1,77 @@
+/**
+ * Copyright © 2016 arxes-tolina GmbH (entwicklung@arxes-tolina.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tolina.common.validation;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static de.tolina.common.validation.AnnotationDefinition.type;
+import static de.tolina.common.validation.AnnotationValidator.validate;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for the Java 11 variant of {@link ValidationEvents}, run against the multi release jar in the
+ * <code>java11</code> profile
+ */
+public class ValidationEventsIT {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    @Test
+    public void testEvents_recorded() throws IOException {
+        final Path recordingFile = temporaryFolder.newFile("validation.jfr").toPath();
+        try (final Recording recording = new Recording()) {
+            recording.enable("de.tolina.common.validation.Element");
+            recording.enable("de.tolina.common.validation.Phase");
+            recording.start();
+
+            validate().annotation(type(TestAnnotation.class).param("testparameter", "other"))
+                    .resultFor(DeepAnnotatedTestClass.class);
+
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        final List<String> elements = events.stream()
+                .filter(event -> event.getEventType().getName().equals("de.tolina.common.validation.Element"))
+                .map(event -> event.getString("element"))
+                .collect(Collectors.toList());
+        final List<String> phases = events.stream()
+                .filter(event -> event.getEventType().getName().equals("de.tolina.common.validation.Phase"))
+                .map(event -> event.getString("phase"))
+                .collect(Collectors.toList());
+
+        assertThat(elements, hasItem(DeepAnnotatedTestClass.class.toString()));
+        assertThat(phases, hasItems("HIERARCHY_RESOLUTION", "ALIAS_RESOLUTION", "ATTRIBUTE_READ",
+                "VIOLATION_CREATION"));
+        assertThat(elements.size(), is(1));
+    }
+}